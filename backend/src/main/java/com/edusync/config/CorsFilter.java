@@ -30,8 +30,8 @@ public class CorsFilter implements Filter {
         }
         
         response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, PATCH, HEAD");
-        response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization, Cache-Control, Pragma, Date");
-        response.setHeader("Access-Control-Expose-Headers", "Authorization, Content-Disposition, Content-Type");
+        response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization, Cache-Control, Pragma, Date, If-None-Match, X-Request-Id, X-Debug-Sql, X-Admin-Token");
+        response.setHeader("Access-Control-Expose-Headers", "Authorization, Content-Disposition, Content-Type, ETag, X-Request-Id");
         response.setHeader("Access-Control-Allow-Credentials", "true");
         response.setHeader("Access-Control-Max-Age", "3600");
 
@@ -0,0 +1,76 @@
+package com.edusync.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Primary and (optional) read-replica connection pools behind one routing DataSource.
+ *
+ * The primary is configured with the usual {@code spring.datasource.*} properties. Setting
+ * {@code edusync.datasource.replica.jdbc-url} adds a second Hikari pool (any Hikari property can
+ * be set under {@code edusync.datasource.replica.*}). The routing DataSource is wrapped in a
+ * {@link LazyConnectionDataSourceProxy} so the physical connection is only picked once the
+ * transaction's read-only flag is known. Flyway always migrates the primary.
+ */
+@Configuration
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "edusync.datasource.replica.jdbc-url")
+    @ConfigurationProperties("edusync.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replica,
+                                               @Value("${edusync.datasource.replica.max-lag:5s}") Duration maxLag,
+                                               @Value("${edusync.datasource.replica.check-replication-status:true}") boolean checkStatus,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica.getIfAvailable(), maxLag, checkStatus, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.Route.PRIMARY, primary);
+        targets.put(ReadWriteRoutingDataSource.Route.REPLICA, replica.getIfAvailable(() -> primary));
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagMonitor, "com.edusync.");
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
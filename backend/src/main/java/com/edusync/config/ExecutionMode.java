@@ -0,0 +1,42 @@
+package com.edusync.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the application's own background executors.
+ *
+ * With {@code spring.threads.virtual.enabled=true} Boot runs Tomcat requests, {@code @Scheduled}
+ * jobs and async MVC work on virtual threads; executors built from this factory follow the same
+ * switch. Executors keep their own size limits either way, and the JDBC pool
+ * ({@code spring.datasource.hikari.maximum-pool-size}) caps how many threads talk to the database.
+ */
+@Component
+public class ExecutionMode {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public boolean isVirtual() {
+        return virtualThreads;
+    }
+
+    /**
+     * Threads named {@code <name>-1}, {@code <name>-2}, ... Platform threads are daemons so they
+     * never hold up shutdown.
+     */
+    public ThreadFactory threadFactory(String name) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name(name + "-", 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.edusync.config;
+
+import com.edusync.storage.LocalObjectStorage;
+import com.edusync.storage.ObjectStorage;
+import com.edusync.storage.S3ObjectStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Selects where uploads are stored with {@code storage.backend}.
+ *
+ * {@code local} (the default) keeps files under {@code file.upload-dir}, which ties the backend
+ * to a single node. {@code s3} stores them in an S3-compatible bucket shared by all nodes; set
+ * {@code storage.s3.endpoint} and {@code storage.s3.path-style-access=true} for MinIO and other
+ * self-hosted services. Without explicit keys the default AWS credentials chain is used.
+ */
+@Configuration
+public class ObjectStorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+    public ObjectStorage localObjectStorage(FileStorageConfig fileStorageConfig) throws IOException {
+        return new LocalObjectStorage(Paths.get(fileStorageConfig.getUploadDir()));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+    public S3Client s3Client(@Value("${storage.s3.endpoint:}") String endpoint,
+                             @Value("${storage.s3.region:us-east-1}") String region,
+                             @Value("${storage.s3.access-key:}") String accessKey,
+                             @Value("${storage.s3.secret-key:}") String secretKey,
+                             @Value("${storage.s3.path-style-access:false}") boolean pathStyleAccess) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyleAccess)
+                .credentialsProvider(StringUtils.hasText(accessKey)
+                        ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                        : DefaultCredentialsProvider.create());
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+    public ObjectStorage s3ObjectStorage(S3Client s3Client,
+                                         @Value("${storage.s3.bucket}") String bucket,
+                                         @Value("${storage.s3.key-prefix:}") String keyPrefix,
+                                         @Value("${storage.s3.multipart-threshold-bytes:16777216}") long multipartThreshold,
+                                         @Value("${storage.s3.part-size-bytes:8388608}") long partSize) {
+        return new S3ObjectStorage(s3Client, bucket, keyPrefix, multipartThreshold, partSize);
+    }
+}
@@ -0,0 +1,38 @@
+package com.edusync.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only application transactions to the replica pool and everything
+ * else to the primary.
+ *
+ * Only read-only transactions declared in our own code count ({@code @Transactional(readOnly = true)}
+ * on a service method). Spring Data opens a read-only transaction of its own for every bare
+ * repository read; those stay on the primary, so code that has not opted in keeps
+ * read-your-writes (e.g. logging in right after signing up).
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final String applicationPackage;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, String applicationPackage) {
+        this.lagMonitor = lagMonitor;
+        this.applicationPackage = applicationPackage;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.PRIMARY;
+        }
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName == null || !transactionName.startsWith(applicationPackage)) {
+            return Route.PRIMARY;
+        }
+        return lagMonitor.isReplicaUsable() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
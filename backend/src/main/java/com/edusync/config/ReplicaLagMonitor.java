@@ -0,0 +1,95 @@
+package com.edusync.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Tracks how far the read replica is behind the primary. While the lag is unknown or above
+ * {@code maxLag}, read-only transactions fall back to the primary.
+ *
+ * With {@code checkReplicationStatus} off the replica is always considered fresh, which is what
+ * you want when testing against two independent local MySQL instances.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final boolean checkReplicationStatus;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, boolean checkReplicationStatus, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.checkReplicationStatus = checkReplicationStatus;
+        this.replicaUsable = replica != null && !checkReplicationStatus;
+
+        Gauge.builder("edusync.datasource.replica.usable", this, m -> m.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        Gauge.builder("edusync.datasource.replica.lag", this, m -> m.lagSeconds)
+                .baseUnit("seconds")
+                .description("Replication lag of the read replica, -1 when unknown")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${edusync.datasource.replica.lag-check-interval:5000}")
+    public void refresh() {
+        if (replica == null || !checkReplicationStatus) {
+            return;
+        }
+        boolean wasUsable = replicaUsable;
+        try {
+            lagSeconds = readLagSeconds();
+            replicaUsable = lagSeconds >= 0 && lagSeconds <= maxLag.toSeconds();
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            replicaUsable = false;
+            log.debug("Could not read replica status: {}", e.getMessage());
+        }
+        if (wasUsable != replicaUsable) {
+            log.warn("Read replica {} (lag {}s, max {}s)", replicaUsable ? "back in use" : "bypassed",
+                    lagSeconds, maxLag.toSeconds());
+        }
+    }
+
+    private long readLagSeconds() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return lagFrom(rs, "Seconds_Behind_Source");
+            } catch (SQLSyntaxErrorException e) {
+                // MySQL before 8.0.22
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return lagFrom(rs, "Seconds_Behind_Master");
+                }
+            }
+        }
+    }
+
+    private long lagFrom(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return -1; // not configured as a replica
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? -1 : lag; // NULL while the SQL thread is stopped
+    }
+}
@@ -6,6 +6,8 @@ import com.edusync.dto.ResetPasswordRequest;
 import com.edusync.dto.ApiResponse;
 import com.edusync.entity.User;
 import com.edusync.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,8 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
 
@@ -32,7 +36,7 @@ public class AuthController {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
-            System.err.println("Validation error - " + fieldName + ": " + errorMessage);
+            log.debug("Validation error - {}: {}", fieldName, errorMessage);
         });
         
         return ResponseEntity.badRequest().body(new ApiResponse(false, "Validation failed", errors));
@@ -41,13 +45,7 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<ApiResponse> register(@Valid @RequestBody RegisterRequest request) {
         try {
-            System.out.println("=== REGISTRATION REQUEST RECEIVED ===");
-            System.out.println("First Name: '" + request.getFirstName() + "'");
-            System.out.println("Last Name: '" + request.getLastName() + "'");
-            System.out.println("Email: '" + request.getEmail() + "'");
-            System.out.println("Password: '" + request.getPassword() + "' (length: " + (request.getPassword() != null ? request.getPassword().length() : "null") + ")");
-            System.out.println("Role: '" + request.getRole() + "'");
-            System.out.println("=====================================");
+            log.debug("Registration request: email={} role={}", request.getEmail(), request.getRole());
             
             User user = userService.registerUser(request);
             
@@ -55,11 +53,10 @@ public class AuthController {
             data.put("user", user);
             data.put("message", "User registered successfully");
             
-            System.out.println("User registered successfully: " + user.getId());
+            log.info("User registered: {}", user.getId());
             return ResponseEntity.ok(new ApiResponse(true, "Registration successful", data));
         } catch (Exception e) {
-            System.err.println("Registration failed: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Registration failed for {}", request.getEmail(), e);
             return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
         }
     }
@@ -78,9 +75,9 @@ public class AuthController {
             userData.put("role", user.getRole());
             
             // Return profile picture as base64 if it exists
-            if (user.getProfilePicture() != null) {
-                userData.put("profilePicture", user.getProfilePicture());
-                System.out.println("Login profile picture found");
+            String profilePicture = userService.getProfilePicture(user.getId());
+            if (profilePicture != null) {
+                userData.put("profilePicture", profilePicture);
             } else {
                 userData.put("profilePicture", null);
             }
@@ -90,7 +87,7 @@ public class AuthController {
             
             // Generate a session token with user ID embedded
             String sessionToken = "session_" + System.currentTimeMillis() + "_" + user.getId();
-            System.out.println("Session created for user: " + user.getEmail() + " with token: " + sessionToken);
+            log.debug("Session created for user {}", user.getId());
             
             Map<String, Object> data = new HashMap<>();
             data.put("user", userData);
@@ -135,9 +132,9 @@ public class AuthController {
                         userData.put("role", lastUser.getRole());
                         
                         // Return profile picture as base64 if it exists
-                        if (lastUser.getProfilePicture() != null) {
-                            userData.put("profilePicture", lastUser.getProfilePicture());
-                            System.out.println("Session profile picture found");
+                        String profilePicture = userService.getProfilePicture(lastUser.getId());
+                        if (profilePicture != null) {
+                            userData.put("profilePicture", profilePicture);
                         } else {
                             userData.put("profilePicture", null);
                         }
@@ -155,7 +152,7 @@ public class AuthController {
             
             return ResponseEntity.status(401).body(new ApiResponse(false, "No valid session", null));
         } catch (Exception e) {
-            System.err.println("Session error: " + e.getMessage());
+            log.warn("Session error: {}", e.getMessage());
             return ResponseEntity.status(401).body(new ApiResponse(false, "Session error", null));
         }
     }
@@ -163,18 +160,16 @@ public class AuthController {
     @PostMapping("/reset-password")
     public ResponseEntity<ApiResponse> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
         try {
-            System.out.println("=== RESET PASSWORD REQUEST ===");
-            System.out.println("Email: " + request.getEmail());
-            System.out.println("==============================");
+            log.debug("Password reset request for {}", request.getEmail());
             
             String message = userService.resetPasswordByEmail(request.getEmail(), request.getNewPassword());
             
             return ResponseEntity.ok(new ApiResponse(true, message, null));
         } catch (RuntimeException e) {
-            System.err.println("Reset password failed: " + e.getMessage());
+            log.warn("Reset password failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
         } catch (Exception e) {
-            System.err.println("Reset password failed: " + e.getMessage());
+            log.error("Reset password failed", e);
             return ResponseEntity.badRequest().body(new ApiResponse(false, "Password reset failed. Please try again.", null));
         }
     }
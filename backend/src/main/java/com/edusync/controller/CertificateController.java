@@ -3,9 +3,10 @@ package com.edusync.controller;
 import com.edusync.entity.Certificate;
 import com.edusync.repository.UserRepository;
 import com.edusync.service.CertificateService;
+import com.edusync.service.FileStorageService;
+import com.edusync.service.PreviewService;
+import com.edusync.service.StaticFileService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -13,8 +14,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
@@ -30,8 +29,14 @@ public class CertificateController {
     @Autowired
     private UserRepository userRepository;
 
-    private final String uploadDir =
-            System.getProperty("user.dir") + File.separator + "uploads" + File.separator + "certificates" + File.separator;
+    @Autowired
+    private StaticFileService staticFileService;
+
+    @Autowired
+    private PreviewService previewService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
 
     // =========================
     // Upload
@@ -51,13 +56,6 @@ public class CertificateController {
             }
             Long userId = userOpt.get().getId();
 
-            // Ensure upload dir
-            File dir = new File(uploadDir);
-            if (!dir.exists() && !dir.mkdirs()) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(new ApiResponse<>(false, "Failed to create upload directory", null));
-            }
-
             // Validate file
             if (file.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -81,13 +79,13 @@ public class CertificateController {
             // Unique filename
             String safeName = originalFilename.replaceAll("[^a-zA-Z0-9.-]", "_");
             String fileName = System.currentTimeMillis() + "_" + userId + "_" + safeName;
-            String filePath = uploadDir + fileName;
 
-            // Save to disk
-            file.transferTo(new File(filePath));
+            // Save to storage; the certificate keeps the storage key
+            String key = fileStorageService.storeCertificateFile(file, fileName);
+            previewService.generatePreviewAsync(key);
 
             // Save DB
-            Certificate saved = certificateService.saveCertificate(userId, title, description, type, filePath);
+            Certificate saved = certificateService.saveCertificate(userId, title, description, type, key);
             return ResponseEntity.ok(new ApiResponse<>(true, "Certificate uploaded successfully", saved));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -173,27 +171,13 @@ public class CertificateController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Certificate not found");
             }
 
-            Certificate certificate = certOpt.get();
-            File file = new File(certificate.getFilePath());
-            if (!file.exists()) {
+            Optional<Resource> file = fileStorageService.loadCertificateFile(certOpt.get().getFilePath());
+            if (file.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
             }
 
-            String lower = file.getName().toLowerCase();
-            String contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-            if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) contentType = MediaType.IMAGE_JPEG_VALUE;
-            else if (lower.endsWith(".png")) contentType = MediaType.IMAGE_PNG_VALUE;
-            else if (lower.endsWith(".gif")) contentType = MediaType.IMAGE_GIF_VALUE;
-            else if (lower.endsWith(".pdf")) contentType = MediaType.APPLICATION_PDF_VALUE;
-
-            // stream inline
-            FileInputStream fis = new FileInputStream(file);
-            Resource resource = new InputStreamResource(fis);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header("Cache-Control", "max-age=3600")
-                    .header("Content-Disposition", "inline; filename=\"" + file.getName() + "\"")
-                    .body(resource);
+            // stream inline; the file is opened and closed by the message converter
+            return staticFileService.inline(file.get(), file.get().getFilename());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error viewing certificate: " + e.getMessage());
@@ -225,15 +209,14 @@ public class CertificateController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Certificate not found");
             }
 
-            Certificate certificate = certOpt.get();
-            File file = new File(certificate.getFilePath());
-            if (!file.exists()) {
+            Optional<Resource> file = fileStorageService.loadCertificateFile(certOpt.get().getFilePath());
+            if (file.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("File not found");
             }
 
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"" + file.getName() + "\"")
-                    .body(new FileSystemResource(file));
+            String fileName = file.get().getFilename();
+            return staticFileService.attachment(file.get(), fileName,
+                    MediaType.parseMediaType(staticFileService.contentTypeFor(fileName)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error downloading certificate: " + e.getMessage());
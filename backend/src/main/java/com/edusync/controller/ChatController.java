@@ -3,15 +3,15 @@ package com.edusync.controller;
 import com.edusync.dto.ApiResponse;
 import com.edusync.entity.ChatMessage;
 import com.edusync.entity.ChatThread;
-import com.edusync.repository.ChatMessageRepository;
-import com.edusync.repository.ChatThreadRepository;
-import org.springframework.beans.factory.annotation.Autowired;
-import com.edusync.repository.UserRepository;
 import com.edusync.entity.User;
+import com.edusync.service.ChatService;
+import com.edusync.service.CollectionVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,54 +21,61 @@ import java.util.Map;
 public class ChatController {
 
     @Autowired
-    private ChatThreadRepository chatThreadRepository;
+    private ChatService chatService;
 
     @Autowired
-    private ChatMessageRepository chatMessageRepository;
-    @Autowired
-    private UserRepository userRepository;
+    private CollectionVersionService collectionVersionService;
 
     @PostMapping("/threads")
     public ResponseEntity<ApiResponse> createThread(@RequestParam Long studentId,
                                                     @RequestParam Long facultyId,
                                                     @RequestParam(required = false) String subject) {
-        ChatThread t = new ChatThread();
-        t.setStudentId(studentId);
-        t.setFacultyId(facultyId);
-        t.setSubject(subject);
-        t.setLastMessageAt(LocalDateTime.now());
-        ChatThread saved = chatThreadRepository.save(t);
+        ChatThread saved = chatService.createThread(studentId, facultyId, subject);
         return ResponseEntity.ok(new ApiResponse(true, "Thread created", saved));
     }
 
     @GetMapping("/faculty")
     public ResponseEntity<ApiResponse> listFaculty() {
-        var list = userRepository.findByRole(User.UserRole.FACULTY);
+        var list = chatService.getUsersByRole(User.UserRole.FACULTY);
         return ResponseEntity.ok(new ApiResponse(true, "Faculty", list));
     }
 
     @GetMapping("/students")
     public ResponseEntity<ApiResponse> listStudents() {
-        var list = userRepository.findByRole(User.UserRole.STUDENT);
+        var list = chatService.getUsersByRole(User.UserRole.STUDENT);
         return ResponseEntity.ok(new ApiResponse(true, "Students", list));
     }
 
+    // Inboxes and threads are polled; unchanged ones get a 304 without running the query
+
     @GetMapping("/threads/student/{studentId}")
-    public ResponseEntity<ApiResponse> listStudentThreads(@PathVariable Long studentId) {
-        List<ChatThread> threads = chatThreadRepository.findByStudentIdOrderByLastMessageAtDesc(studentId);
-        return ResponseEntity.ok(new ApiResponse(true, "Threads", threads));
+    public ResponseEntity<ApiResponse> listStudentThreads(@PathVariable Long studentId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersionService.etag(
+                CollectionVersionService.studentThreads(studentId)))) {
+            return null;
+        }
+        List<ChatThread> threads = chatService.getStudentThreads(studentId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new ApiResponse(true, "Threads", threads));
     }
 
     @GetMapping("/threads/faculty/{facultyId}")
-    public ResponseEntity<ApiResponse> listFacultyThreads(@PathVariable Long facultyId) {
-        List<ChatThread> threads = chatThreadRepository.findByFacultyIdOrderByLastMessageAtDesc(facultyId);
-        return ResponseEntity.ok(new ApiResponse(true, "Threads", threads));
+    public ResponseEntity<ApiResponse> listFacultyThreads(@PathVariable Long facultyId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersionService.etag(
+                CollectionVersionService.facultyThreads(facultyId)))) {
+            return null;
+        }
+        List<ChatThread> threads = chatService.getFacultyThreads(facultyId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new ApiResponse(true, "Threads", threads));
     }
 
     @GetMapping("/threads/{threadId}/messages")
-    public ResponseEntity<ApiResponse> listMessages(@PathVariable Long threadId) {
-        List<ChatMessage> messages = chatMessageRepository.findByThreadIdOrderByCreatedAtAsc(threadId);
-        return ResponseEntity.ok(new ApiResponse(true, "Messages", messages));
+    public ResponseEntity<ApiResponse> listMessages(@PathVariable Long threadId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersionService.etag(
+                CollectionVersionService.threadMessages(threadId)))) {
+            return null;
+        }
+        List<ChatMessage> messages = chatService.getMessages(threadId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new ApiResponse(true, "Messages", messages));
     }
 
     @PostMapping("/threads/{threadId}/messages")
@@ -76,23 +83,10 @@ public class ChatController {
                                                    @RequestParam Long senderId,
                                                    @RequestParam String senderRole,
                                                    @RequestParam String content) {
-        ChatMessage m = new ChatMessage();
-        m.setThreadId(threadId);
-        m.setSenderId(senderId);
-        m.setSenderRole(senderRole);
-        m.setContent(content);
-        ChatMessage saved = chatMessageRepository.save(m);
-
-        chatThreadRepository.findById(threadId).ifPresent(t -> {
-            t.setLastMessageAt(LocalDateTime.now());
-            t.setUpdatedAt(LocalDateTime.now());
-            chatThreadRepository.save(t);
-        });
+        ChatMessage saved = chatService.sendMessage(threadId, senderId, senderRole, content);
 
         Map<String, Object> data = new HashMap<>();
         data.put("message", saved);
         return ResponseEntity.ok(new ApiResponse(true, "Message sent", data));
     }
 }
-
-
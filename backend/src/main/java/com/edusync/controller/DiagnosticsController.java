@@ -0,0 +1,111 @@
+package com.edusync.controller;
+
+import com.edusync.diagnostics.AdminTokenVerifier;
+import com.edusync.diagnostics.FlightRecordingService;
+import com.edusync.dto.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+
+/**
+ * Admin endpoints for on-demand Flight Recorder recordings. Requests must carry the configured
+ * {@code diagnostics.admin-token} in {@code X-Admin-Token}; without a configured token the
+ * endpoints are disabled.
+ */
+@RestController
+@RequestMapping("/api/admin/diagnostics/jfr")
+public class DiagnosticsController {
+
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticsController.class);
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private AdminTokenVerifier adminTokenVerifier;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse> status(@RequestHeader(value = AdminTokenVerifier.HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(new ApiResponse(true, "Recording status", flightRecordingService.status()));
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<ApiResponse> start(@RequestHeader(value = AdminTokenVerifier.HEADER, required = false) String token,
+                                             @RequestParam(value = "settings", defaultValue = "default") String settings) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        if (!settings.equals("default") && !settings.equals("profile")) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "settings must be 'default' or 'profile'", null));
+        }
+        try {
+            return ResponseEntity.ok(new ApiResponse(true, "Recording started", flightRecordingService.start(settings)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error starting flight recording", e);
+            return ResponseEntity.internalServerError().body(new ApiResponse(false, "Failed to start recording: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<?> stop(@RequestHeader(value = AdminTokenVerifier.HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        try {
+            return download(flightRecordingService.stop());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error stopping flight recording", e);
+            return ResponseEntity.internalServerError().body(new ApiResponse(false, "Failed to stop recording: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/dump")
+    public ResponseEntity<?> dump(@RequestHeader(value = AdminTokenVerifier.HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        try {
+            return download(flightRecordingService.dump());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error dumping flight recording", e);
+            return ResponseEntity.internalServerError().body(new ApiResponse(false, "Failed to dump recording: " + e.getMessage(), null));
+        }
+    }
+
+    private ResponseEntity<?> download(Path file) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(file.getFileName().toString())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(new FileSystemResource(file));
+    }
+
+    private boolean authorized(String token) {
+        return adminTokenVerifier.isValid(token);
+    }
+
+    private ResponseEntity<ApiResponse> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ApiResponse(false, "Diagnostics endpoints are not available", null));
+    }
+}
@@ -5,10 +5,19 @@ import com.edusync.entity.Activity;
 import com.edusync.entity.User;
 import com.edusync.repository.UserRepository;
 import com.edusync.service.ActivityService;
+import com.edusync.service.CollectionVersionService;
+import com.edusync.service.PortfolioExportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,13 +32,24 @@ public class PortfolioController {
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private PortfolioExportService portfolioExportService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
     @GetMapping("/summary")
-    public ResponseEntity<ApiResponse> getPortfolio(@RequestParam("userEmail") String userEmail) {
+    public ResponseEntity<ApiResponse> getPortfolio(@RequestParam("userEmail") String userEmail, WebRequest webRequest) {
         try {
             User user = userRepository.findByEmail(userEmail).orElse(null);
             if (user == null) {
                 return ResponseEntity.badRequest().body(new ApiResponse(false, "User not found", null));
             }
+            // Bumped by ActivityService and UserService; unchanged portfolios get a 304
+            if (webRequest.checkNotModified(collectionVersionService.etag(
+                    CollectionVersionService.portfolio(user.getId())))) {
+                return null;
+            }
             List<Activity> activities = activityService.getMyActivities(userEmail);
             int approvedCount = (int) activities.stream().filter(a -> a.getStatus() == Activity.Status.APPROVED).count();
             int totalCredits = activities.stream()
@@ -43,11 +63,28 @@ public class PortfolioController {
             profile.put("approvedActivities", approvedCount);
             profile.put("totalCredits", totalCredits);
 
-            return ResponseEntity.ok(new ApiResponse(true, "Portfolio summary generated", profile));
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(new ApiResponse(true, "Portfolio summary generated", profile));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(new ApiResponse(false, "Failed to generate portfolio", null));
         }
     }
-}
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPortfolios(
+            @RequestParam("facultyEmail") String facultyEmail,
+            @RequestParam(value = "studentIds", required = false) List<Long> studentIds) {
+        User faculty = userRepository.findByEmail(facultyEmail).orElse(null);
+        if (faculty == null || faculty.getRole() != User.UserRole.FACULTY) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        StreamingResponseBody body = out -> portfolioExportService.exportPortfolios(studentIds, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"portfolios-" + LocalDate.now() + ".zip\"")
+                .body(body);
+    }
+}
 
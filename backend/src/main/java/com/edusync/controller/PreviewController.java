@@ -0,0 +1,68 @@
+package com.edusync.controller;
+
+import com.edusync.entity.Certificate;
+import com.edusync.repository.ResourceRepository;
+import com.edusync.service.CertificateService;
+import com.edusync.service.FileStorageService;
+import com.edusync.service.PreviewService;
+import com.edusync.service.StaticFileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/previews")
+public class PreviewController {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviewController.class);
+
+    @Autowired
+    private PreviewService previewService;
+
+    @Autowired
+    private StaticFileService staticFileService;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @GetMapping("/resources/{id}")
+    public ResponseEntity<?> resourcePreview(@PathVariable Long id) {
+        Optional<com.edusync.entity.Resource> resourceOpt = resourceRepository.findById(id);
+        if (resourceOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return servePreview(FileStorageService.resourceKey(resourceOpt.get().getFileName()));
+    }
+
+    @GetMapping("/certificates/{id}")
+    public ResponseEntity<?> certificatePreview(@PathVariable Long id) {
+        Optional<Certificate> certOpt = certificateService.getCertificateById(id);
+        if (certOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return servePreview(FileStorageService.certificateKey(certOpt.get().getFilePath()));
+    }
+
+    private ResponseEntity<?> servePreview(String source) {
+        try {
+            Optional<Path> preview = previewService.getPreview(source);
+            if (preview.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Path file = preview.get();
+            return staticFileService.inline(new FileSystemResource(file), file.getFileName().toString());
+        } catch (Exception e) {
+            log.error("Error serving preview for {}", source, e);
+            return ResponseEntity.internalServerError().body("Failed to load preview: " + e.getMessage());
+        }
+    }
+}
@@ -35,7 +35,7 @@ public class ProfileController {
             userData.put("lastName", user.getLastName());
             userData.put("email", user.getEmail());
             userData.put("role", user.getRole());
-            userData.put("profilePicture", user.getProfilePicture());
+            userData.put("profilePicture", userService.getProfilePicture(user.getId()));
             userData.put("createdAt", user.getCreatedAt());
             userData.put("lastLogin", user.getLastLogin());
 
@@ -85,7 +85,7 @@ public class ProfileController {
             userData.put("lastName", updatedUser.getLastName());
             userData.put("email", updatedUser.getEmail());
             userData.put("role", updatedUser.getRole());
-            userData.put("profilePicture", updatedUser.getProfilePicture());
+            userData.put("profilePicture", userService.getProfilePicture(updatedUser.getId()));
             userData.put("createdAt", updatedUser.getCreatedAt());
             userData.put("lastLogin", updatedUser.getLastLogin());
 
@@ -133,9 +133,7 @@ public class ProfileController {
             // Convert file to base64 and store as string
             byte[] imageBytes = file.getBytes();
             String base64Image = "data:" + file.getContentType() + ";base64," + java.util.Base64.getEncoder().encodeToString(imageBytes);
-            user.setProfilePicture(base64Image);
-            
-            User updatedUser = userService.saveUser(user);
+            userService.updateProfilePicture(user.getId(), base64Image);
 
             // Return the base64 image data for immediate display
             Map<String, Object> responseData = new HashMap<>();
@@ -159,11 +157,8 @@ public class ProfileController {
                 );
             }
 
-            if (user.getProfilePicture() != null) {
-                // Update user to remove profile picture
-                user.setProfilePicture(null);
-                userService.saveUser(user);
-            }
+            // Update user to remove profile picture
+            userService.updateProfilePicture(user.getId(), null);
 
             return ResponseEntity.ok(new ApiResponse(true, "Profile picture removed successfully", null));
         } catch (Exception e) {
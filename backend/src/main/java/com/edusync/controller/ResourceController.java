@@ -3,23 +3,37 @@ package com.edusync.controller;
 import com.edusync.dto.ApiResponse;
 import com.edusync.entity.User;
 import com.edusync.entity.Resource;
+import com.edusync.service.CollectionVersionService;
 import com.edusync.service.FileStorageService;
+import com.edusync.service.QuotaExceededException;
+import com.edusync.service.ResourceCounterService;
+import com.edusync.service.ResourceListingCache;
+import com.edusync.service.ResourceListingService;
 import com.edusync.service.UserService;
 import com.edusync.service.ResourceService;
+import com.edusync.service.SeenResourceService;
+import com.edusync.service.StaticFileService;
+import com.edusync.service.StorageQuotaService;
 import com.edusync.service.SummaryService;
+import com.edusync.service.TaxonomyService;
 import com.edusync.repository.ResourceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +43,8 @@ import java.util.Optional;
 @RequestMapping("/api/resources")
 public class ResourceController {
 
+    private static final Logger log = LoggerFactory.getLogger(ResourceController.class);
+
     @Autowired
     private ResourceRepository resourceRepository;
 
@@ -41,9 +57,33 @@ public class ResourceController {
     @Autowired
     private ResourceService resourceService;
 
+    @Autowired
+    private ResourceListingService resourceListingService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private ResourceListingCache resourceListingCache;
+
     @Autowired
     private SummaryService summaryService;
 
+    @Autowired
+    private StaticFileService staticFileService;
+
+    @Autowired
+    private StorageQuotaService storageQuotaService;
+
+    @Autowired
+    private ResourceCounterService resourceCounterService;
+
+    @Autowired
+    private SeenResourceService seenResourceService;
+
+    @Autowired
+    private TaxonomyService taxonomyService;
+
     @GetMapping("/health")
     public ResponseEntity<ApiResponse> healthCheck() {
         try {
@@ -82,12 +122,8 @@ public class ResourceController {
             @RequestParam("branch") String branch,
             @RequestParam(value = "subject", required = false) String subject) {
         
-        System.out.println("=== RESOURCE UPLOAD REQUEST ===");
-        System.out.println("Title: " + title);
-        System.out.println("Description: " + description);
-        System.out.println("User Email: " + userEmail);
-        System.out.println("File: " + file.getOriginalFilename() + " (" + file.getSize() + " bytes)");
-        System.out.println("Content Type: " + file.getContentType());
+        log.debug("Resource upload: title={} user={} file={} size={} contentType={}",
+                title, userEmail, file.getOriginalFilename(), file.getSize(), file.getContentType());
         
         try {
             // Validate file
@@ -105,6 +141,12 @@ public class ResourceController {
                 );
             }
 
+            if (branch.isBlank()) {
+                return ResponseEntity.badRequest().body(
+                    new ApiResponse(false, "Branch is required", null)
+                );
+            }
+
             // Find user
             User user = userService.findByEmail(userEmail);
             if (user == null) {
@@ -120,25 +162,10 @@ public class ResourceController {
                 );
             }
 
-            // Store file
-            String storedFileName = fileStorageService.storeResourceFile(file);
-            
-            // Create resource entity with exact schema fields
-            com.edusync.entity.Resource resource = new com.edusync.entity.Resource();
-            resource.setTitle(title);
-            resource.setDescription(description);
-            resource.setFileName(storedFileName);
-            resource.setFileSize(file.getSize());
-            resource.setFileType(file.getContentType());
-            resource.setUploadedBy(user.getId());
-            resource.setUploadedAt(LocalDateTime.now());
-            resource.setBranch(branch);
-            if (subject != null && !subject.isBlank()) {
-                resource.setSubject(subject);
-            }
-            
-            // Save to database
-            com.edusync.entity.Resource savedResource = resourceRepository.save(resource);
+            // Store file and save to database (also bumps the listing versions)
+            com.edusync.entity.Resource savedResource = resourceService.saveResource(
+                    file, title, description, file.getContentType(), user.getId(), branch, subject);
+            String storedFileName = savedResource.getFileName();
             
             // Return success response
             Map<String, Object> responseData = new HashMap<>();
@@ -151,9 +178,15 @@ public class ResourceController {
                 new ApiResponse(true, "Resource uploaded successfully", responseData)
             );
             
+        } catch (QuotaExceededException e) {
+            Map<String, Object> quotaData = new HashMap<>();
+            quotaData.put("usedBytes", e.getUsedBytes());
+            quotaData.put("quotaBytes", e.getQuotaBytes());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(
+                new ApiResponse(false, "Storage quota exceeded. Delete some resources before uploading more.", quotaData)
+            );
         } catch (Exception e) {
-            System.err.println("Error uploading resource: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error uploading resource for {}", userEmail, e);
             
             // Provide more specific error messages
             String errorMessage = "Failed to upload resource";
@@ -174,99 +207,131 @@ public class ResourceController {
     }
 
     @GetMapping("/list")
-    public ResponseEntity<ApiResponse> getAllResources(
+    public ResponseEntity<?> getAllResources(
             @RequestParam(required = false) String branch,
-            @RequestParam(required = false) String subject) {
-        try {
-            List<com.edusync.entity.Resource> resources;
-            if (branch != null && !branch.isBlank() && !branch.equalsIgnoreCase("All")) {
-                if (subject != null && !subject.isBlank()) {
-                    resources = resourceRepository.findByBranchAndSubjectIgnoreCase(branch, subject);
-                } else {
-                    resources = resourceRepository.findByBranch(branch);
-                }
-            } else {
-                resources = resourceRepository.findAllByOrderByUploadedAtDesc();
-            }
-            
-            // Convert to DTOs with branch/subject
-            List<Map<String, Object>> resourceDtos = resources.stream()
-                .map(resource -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("id", resource.getId());
-                    dto.put("title", resource.getTitle());
-                    dto.put("description", resource.getDescription() != null ? resource.getDescription() : "");
-                    dto.put("fileName", resource.getFileName());
-                    dto.put("fileSize", resource.getFileSize());
-                    dto.put("fileType", resource.getFileType());
-                    dto.put("uploadedBy", resource.getUploadedBy());
-                    dto.put("uploadedAt", resource.getUploadedAt());
-                    dto.put("branch", resource.getBranch());
-                    dto.put("subject", resource.getSubject());
-                    return dto;
-                })
-                .collect(java.util.stream.Collectors.toList());
-            
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("resources", resourceDtos);
-            responseData.put("count", resourceDtos.size());
-            
-            return ResponseEntity.ok(
-                new ApiResponse(true, "Resources retrieved successfully", responseData)
+            @RequestParam(required = false) String subject,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        return catalogue(branch, subject, acceptEncoding, webRequest);
+    }
+
+    // A player fetching a video in ranges counts once, for the request that starts at byte 0
+    private static boolean startsAtBeginning(String range) {
+        return range == null || range.replace(" ", "").startsWith("bytes=0-");
+    }
+
+    // Students passing their email get the resource ticked off their "new" list
+    private void markSeen(String userEmail, Long resourceId) {
+        if (userEmail == null || userEmail.isBlank()) {
+            return;
+        }
+        User user = userService.findByEmail(userEmail);
+        if (user != null && user.getRole() == User.UserRole.STUDENT) {
+            seenResourceService.markSeen(user.getId(), resourceId);
+        }
+    }
+
+    @GetMapping("/unseen")
+    public ResponseEntity<ApiResponse> getUnseenResources(
+            @RequestParam("userEmail") String userEmail,
+            @RequestParam(required = false) String branch,
+            @RequestParam(defaultValue = "0") int limit) {
+        User user = userService.findByEmail(userEmail);
+        if (user == null) {
+            return ResponseEntity.badRequest().body(
+                new ApiResponse(false, "User not found", null)
             );
-        } catch (Exception e) {
-            System.err.println("Error retrieving resources: " + e.getMessage());
-            return ResponseEntity.internalServerError().body(
-                new ApiResponse(false, "Failed to retrieve resources", null)
+        }
+        return ResponseEntity.ok(
+            new ApiResponse(true, "Unseen resources retrieved successfully", seenResourceService.unseen(user.getId(), branch, limit))
+        );
+    }
+
+    @GetMapping("/popular")
+    public ResponseEntity<ApiResponse> getPopularResources(
+            @RequestParam(required = false) String branch,
+            @RequestParam(required = false) String subject,
+            @RequestParam(defaultValue = "views") String metric,
+            @RequestParam(defaultValue = "10") int limit) {
+        ResourceCounterService.Metric rankBy;
+        if (metric.equalsIgnoreCase("views")) {
+            rankBy = ResourceCounterService.Metric.VIEWS;
+        } else if (metric.equalsIgnoreCase("downloads")) {
+            rankBy = ResourceCounterService.Metric.DOWNLOADS;
+        } else {
+            return ResponseEntity.badRequest().body(
+                new ApiResponse(false, "metric must be 'views' or 'downloads'", null)
             );
         }
+        return ResponseEntity.ok(
+            new ApiResponse(true, "Popular resources retrieved successfully",
+                    resourceCounterService.top(branch, subject, rankBy, limit))
+        );
     }
 
-    @GetMapping("/my-resources")
-    public ResponseEntity<ApiResponse> getMyResources(@RequestParam("userEmail") String userEmail) {
-        try {
-            User user = userService.findByEmail(userEmail);
-            if (user == null) {
-                return ResponseEntity.badRequest().body(
-                    new ApiResponse(false, "User not found", null)
-                );
-            }
+    // Branches and their subjects for filter menus, from memory; revalidated by taxonomy version
+    @GetMapping("/taxonomy")
+    public ResponseEntity<ApiResponse> getTaxonomy(WebRequest webRequest) {
+        TaxonomyService.Taxonomy taxonomy = taxonomyService.taxonomy();
+        if (webRequest.checkNotModified(CollectionVersionService.etag(taxonomy.version()))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(new ApiResponse(true, "Branches and subjects retrieved successfully", taxonomy.branches()));
+    }
 
-            List<com.edusync.entity.Resource> resources = resourceRepository.findByUploadedByOrderByUploadedAtDesc(user.getId());
-            
-            // Convert to DTOs with proper structure
-            List<Map<String, Object>> resourceDtos = resources.stream()
-                .map(resource -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("id", resource.getId());
-                    dto.put("title", resource.getTitle());
-                    dto.put("description", resource.getDescription() != null ? resource.getDescription() : "");
-                    dto.put("fileName", resource.getFileName());
-                    dto.put("fileSize", resource.getFileSize());
-                    dto.put("fileType", resource.getFileType());
-                    dto.put("uploadedBy", resource.getUploadedBy());
-                    dto.put("uploadedAt", resource.getUploadedAt());
-                    return dto;
-                })
-                .collect(java.util.stream.Collectors.toList());
-            
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("resources", resourceDtos);
-            responseData.put("count", resourceDtos.size());
-            
-            return ResponseEntity.ok(
-                new ApiResponse(true, "Resources retrieved successfully", responseData)
+    @GetMapping("/storage-usage")
+    public ResponseEntity<ApiResponse> getStorageUsage(@RequestParam("userEmail") String userEmail) {
+        User user = userService.findByEmail(userEmail);
+        if (user == null) {
+            return ResponseEntity.badRequest().body(
+                new ApiResponse(false, "User not found", null)
             );
-        } catch (Exception e) {
-            System.err.println("Error retrieving user resources: " + e.getMessage());
-            return ResponseEntity.internalServerError().body(
-                new ApiResponse(false, "Failed to retrieve resources", null)
+        }
+        return ResponseEntity.ok(
+            new ApiResponse(true, "Storage usage retrieved successfully", storageQuotaService.usage(user.getId()))
+        );
+    }
+
+    @GetMapping("/my-resources")
+    public ResponseEntity<?> getMyResources(@RequestParam("userEmail") String userEmail, WebRequest webRequest) {
+        User user = userService.findByEmail(userEmail);
+        if (user == null) {
+            return ResponseEntity.badRequest().body(
+                new ApiResponse(false, "User not found", null)
             );
         }
+        if (webRequest.checkNotModified(collectionVersionService.etag(
+                CollectionVersionService.resourcesByUploader(user.getId())))) {
+            return null;
+        }
+        return streamListing(out -> resourceListingService.writeResourcesByUploader(user.getId(), out));
+    }
+
+    // Listings are written row by row as they come off the cursor; see ResourceListingService.
+    // The ETag set by checkNotModified is revalidated on every poll.
+    private ResponseEntity<StreamingResponseBody> streamListing(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> {
+                    try {
+                        body.writeTo(out);
+                    } catch (IOException | RuntimeException e) {
+                        // Headers are already sent, so the client only sees a truncated response
+                        log.error("Error streaming resource listing", e);
+                        throw e;
+                    }
+                });
     }
 
     @GetMapping("/download/{resourceId}")
-    public ResponseEntity<org.springframework.core.io.Resource> downloadResource(@PathVariable Long resourceId) {
+    public ResponseEntity<org.springframework.core.io.Resource> downloadResource(
+            @PathVariable Long resourceId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestParam(value = "userEmail", required = false) String userEmail) {
         try {
             Optional<com.edusync.entity.Resource> resourceOpt = resourceRepository.findById(resourceId);
             if (!resourceOpt.isPresent()) {
@@ -275,101 +340,53 @@ public class ResourceController {
 
             com.edusync.entity.Resource resource = resourceOpt.get();
             org.springframework.core.io.Resource fileResource = fileStorageService.loadResourceFileAsResource(resource.getFileName());
+            if (startsAtBeginning(range)) {
+                resourceCounterService.recordDownload(resourceId);
+            }
+            markSeen(userEmail, resourceId);
             
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getTitle() + "\"")
-                    .body(fileResource);
+            return staticFileService.attachment(fileResource, resource.getTitle(), MediaType.APPLICATION_OCTET_STREAM,
+                    acceptEncoding);
                     
         } catch (Exception e) {
-            System.err.println("Error downloading resource: " + e.getMessage());
+            log.error("Error downloading resource {}", resourceId, e);
             return ResponseEntity.notFound().build();
         }
     }
 
     @GetMapping("/view/{id}")
-    public ResponseEntity<?> viewResource(@PathVariable Long id) {
-        System.out.println("=== RESOURCE VIEW REQUEST ===");
-        System.out.println("Resource ID: " + id);
-        
+    public ResponseEntity<?> viewResource(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestParam(value = "userEmail", required = false) String userEmail) {
         try {
             com.edusync.entity.Resource resource = resourceRepository.findById(id).orElse(null);
             if (resource == null) {
-                System.out.println("Resource not found for ID: " + id);
+                log.debug("Resource not found for id {}", id);
                 return ResponseEntity.notFound().build();
             }
             
-            System.out.println("Found resource: " + resource.getTitle());
-            System.out.println("File name: " + resource.getFileName());
+            log.debug("Viewing resource {} ({})", id, resource.getFileName());
 
             // Get the file from storage
             org.springframework.core.io.Resource fileResource = fileStorageService.loadResourceFileAsResource(resource.getFileName());
             if (fileResource == null) {
                 return ResponseEntity.notFound().build();
             }
-
-            // Determine content type based on file extension
-            String contentType = determineContentType(resource.getFileName());
-            
-            // Read file bytes
-            byte[] fileBytes = org.springframework.util.StreamUtils.copyToByteArray(fileResource.getInputStream());
-            
-            // Return file with appropriate content type for viewing
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(contentType));
-            headers.setContentLength(fileBytes.length);
-            
-            // For PDFs, allow inline viewing
-            if (contentType.equals("application/pdf")) {
-                headers.set("Content-Disposition", "inline; filename=\"" + resource.getFileName() + "\"");
-            } else {
-                headers.set("Content-Disposition", "inline; filename=\"" + resource.getFileName() + "\"");
+            if (startsAtBeginning(range)) {
+                resourceCounterService.recordView(id);
             }
-            
-            return new ResponseEntity<>(fileBytes, headers, org.springframework.http.HttpStatus.OK);
+            markSeen(userEmail, id);
+
+            // Inline with ETag/Last-Modified; conditional and ranged requests are answered by Spring
+            return staticFileService.inline(fileResource, resource.getFileName(), acceptEncoding);
             
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Failed to view resource: " + e.getMessage());
         }
     }
 
-    private String determineContentType(String fileName) {
-        String extension = fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase();
-        switch (extension) {
-            case "pdf":
-                return "application/pdf";
-            case "jpg":
-            case "jpeg":
-                return "image/jpeg";
-            case "png":
-                return "image/png";
-            case "gif":
-                return "image/gif";
-            case "mp4":
-                return "video/mp4";
-            case "avi":
-                return "video/x-msvideo";
-            case "mov":
-                return "video/quicktime";
-            case "doc":
-                return "application/msword";
-            case "docx":
-                return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
-            case "xls":
-                return "application/vnd.ms-excel";
-            case "xlsx":
-                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            case "ppt":
-                return "application/vnd.ms-powerpoint";
-            case "pptx":
-                return "application/vnd.openxmlformats-officedocument.presentationml.presentation";
-            case "txt":
-                return "text/plain";
-            default:
-                return "application/octet-stream";
-        }
-    }
-
     @DeleteMapping("/{resourceId}")
     public ResponseEntity<ApiResponse> deleteResource(
             @PathVariable Long resourceId,
@@ -398,18 +415,15 @@ public class ResourceController {
                 );
             }
 
-            // Delete file
-            fileStorageService.deleteResourceFile(resource.getFileName());
-            
-            // Delete from database
-            resourceRepository.delete(resource);
+            // Delete file, preview and database row
+            resourceService.deleteResource(resource.getId());
 
             return ResponseEntity.ok(
                 new ApiResponse(true, "Resource deleted successfully", null)
             );
             
         } catch (Exception e) {
-            System.err.println("Error deleting resource: " + e.getMessage());
+            log.error("Error deleting resource {}", resourceId, e);
             return ResponseEntity.internalServerError().body(
                 new ApiResponse(false, "Failed to delete resource", null)
             );
@@ -417,29 +431,38 @@ public class ResourceController {
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<ApiResponse> getResources(
+    public ResponseEntity<?> getResources(
             @RequestParam(required = false) String branch,
-            @RequestParam(required = false) String subject) {
+            @RequestParam(required = false) String subject,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        return catalogue(branch, subject, acceptEncoding, webRequest);
+    }
+
+    // Unchanged listings get a 304 without running the query. Branch/subject pages come from the
+    // serialized listing cache; the unfiltered catalogue is streamed.
+    private ResponseEntity<?> catalogue(String branch, String subject, String acceptEncoding, WebRequest webRequest) {
+        String collectionKey = CollectionVersionService.resourceListing(branch, subject);
+        long version = collectionVersionService.version(collectionKey);
+        if (webRequest.checkNotModified(CollectionVersionService.etag(version))) {
+            return null;
+        }
+        if (collectionKey.equals(CollectionVersionService.allResources())) {
+            return streamListing(out -> resourceListingService.writeResources(branch, subject, out));
+        }
+
         try {
-            List<Resource> resources;
-            if (branch != null && !branch.equalsIgnoreCase("All")) {
-                if (subject != null && !subject.isBlank()) {
-                    resources = resourceRepository.findByBranchAndSubjectIgnoreCase(branch, subject);
-                } else {
-                    resources = resourceService.getResourcesByBranch(branch);
-                }
-            } else {
-                resources = resourceService.getAllResources();
+            ResourceListingCache.CachedListing listing = resourceListingCache.get(branch, subject, collectionKey, version);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (listing.gzipped() != null && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listing.gzipped());
             }
-            
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("resources", resources);
-            responseData.put("count", resources.size());
-            
-            return ResponseEntity.ok(
-                new ApiResponse(true, "Resources retrieved successfully", responseData)
-            );
+            return response.body(listing.json());
         } catch (Exception e) {
+            log.error("Error retrieving resources", e);
             return ResponseEntity.internalServerError().body(
                 new ApiResponse(false, "Failed to retrieve resources", null)
             );
@@ -449,8 +472,6 @@ public class ResourceController {
     @PostMapping("/{resourceId}/summarize")
     public ResponseEntity<ApiResponse> generateResourceSummary(@PathVariable Long resourceId) {
         try {
-            System.out.println("=== GENERATING SUMMARY FOR RESOURCE ID: " + resourceId + " ===");
-            
             // Check if resource exists
             Optional<Resource> resourceOpt = resourceRepository.findById(resourceId);
             if (!resourceOpt.isPresent()) {
@@ -460,9 +481,7 @@ public class ResourceController {
             }
 
             Resource resource = resourceOpt.get();
-            System.out.println("Found resource: " + resource.getTitle());
-            System.out.println("File name: " + resource.getFileName());
-            System.out.println("File type: " + resource.getFileType());
+            log.debug("Generating summary for resource {} ({}, {})", resourceId, resource.getFileName(), resource.getFileType());
             
             // Generate summary using the SummaryService
             String summary = summaryService.generateResourceSummary(resourceId);
@@ -474,15 +493,14 @@ public class ResourceController {
             responseData.put("summaryLength", summary.length());
             responseData.put("cohereConfigured", summaryService.isCohereConfigured());
             
-            System.out.println("Summary generated successfully, length: " + summary.length());
+            log.debug("Summary for resource {} generated, {} chars", resourceId, summary.length());
             
             return ResponseEntity.ok(
                 new ApiResponse(true, "Resource summary generated successfully", responseData)
             );
             
         } catch (Exception e) {
-            System.err.println("Error generating summary for resource " + resourceId + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error generating summary for resource {}", resourceId, e);
             
             return ResponseEntity.internalServerError().body(
                 new ApiResponse(false, "Failed to generate resource summary: " + e.getMessage(), null)
@@ -0,0 +1,33 @@
+package com.edusync.controller;
+
+import com.edusync.diagnostics.AdminTokenVerifier;
+import com.edusync.dto.ApiResponse;
+import com.edusync.service.OrphanFileReconciler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin view of stored files no row references, as found by {@link OrphanFileReconciler}.
+ * Requires {@code X-Admin-Token}, like the diagnostics endpoints.
+ */
+@RestController
+@RequestMapping("/api/admin/storage")
+public class StorageAdminController {
+
+    @Autowired
+    private OrphanFileReconciler orphanFileReconciler;
+
+    @Autowired
+    private AdminTokenVerifier adminTokenVerifier;
+
+    @GetMapping("/orphans")
+    public ResponseEntity<ApiResponse> orphans(@RequestHeader(value = AdminTokenVerifier.HEADER, required = false) String token) {
+        if (!adminTokenVerifier.isValid(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "Admin endpoints are not available", null));
+        }
+        return ResponseEntity.ok(new ApiResponse(true, "Orphaned file report", orphanFileReconciler.report()));
+    }
+}
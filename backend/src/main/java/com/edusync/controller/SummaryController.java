@@ -2,6 +2,8 @@ package com.edusync.controller;
 
 import com.edusync.dto.ApiResponse;
 import com.edusync.service.SummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +15,8 @@ import java.util.Map;
 @RequestMapping("/api/summary")
 public class SummaryController {
 
+    private static final Logger log = LoggerFactory.getLogger(SummaryController.class);
+
     @Autowired
     private SummaryService summaryService;
 
@@ -52,8 +56,7 @@ public class SummaryController {
             );
 
         } catch (Exception e) {
-            System.err.println("Error generating summary: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error generating summary", e);
             
             return ResponseEntity.internalServerError().body(
                 new ApiResponse(false, "Failed to generate summary: " + e.getMessage(), null)
@@ -75,8 +78,7 @@ public class SummaryController {
             );
 
         } catch (Exception e) {
-            System.err.println("Error generating resource summary: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error generating summary for resource {}", resourceId, e);
             
             return ResponseEntity.internalServerError().body(
                 new ApiResponse(false, "Failed to generate resource summary: " + e.getMessage(), null)
@@ -0,0 +1,27 @@
+package com.edusync.diagnostics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Checks the {@code X-Admin-Token} header used by diagnostics features. Nothing is authorized
+ * while {@code diagnostics.admin-token} is empty.
+ */
+@Component
+public class AdminTokenVerifier {
+
+    public static final String HEADER = "X-Admin-Token";
+
+    @Value("${diagnostics.admin-token:}")
+    private String adminToken;
+
+    public boolean isValid(String token) {
+        if (adminToken == null || adminToken.isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,33 @@
+package com.edusync.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to the Cohere generate API. The event duration is the HTTP round trip.
+ */
+@Name("com.edusync.CohereCall")
+@Label("Cohere Call")
+@Category({"EduSync", "Summaries"})
+@Description("Request to the Cohere generate endpoint")
+@StackTrace(false)
+public class CohereCallEvent extends jdk.jfr.Event {
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Prompt Characters")
+    public long requestChars;
+
+    @Label("Max Tokens")
+    public int maxTokens;
+
+    @Label("HTTP Status")
+    public int status;
+
+    @Label("Outcome")
+    public String outcome;
+}
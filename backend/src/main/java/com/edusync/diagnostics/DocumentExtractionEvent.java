@@ -0,0 +1,35 @@
+package com.edusync.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Tika parse of an uploaded document. The event duration is the parse time.
+ */
+@Name("com.edusync.DocumentExtraction")
+@Label("Document Extraction")
+@Category({"EduSync", "Documents"})
+@Description("Text extraction of an uploaded file with Apache Tika")
+@StackTrace(false)
+public class DocumentExtractionEvent extends jdk.jfr.Event {
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("File Size")
+    @DataAmount
+    public long fileSize;
+
+    @Label("MIME Type")
+    public String mimeType;
+
+    @Label("Characters Produced")
+    public long charsProduced;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,123 @@
+package com.edusync.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts, stops and dumps an on-demand JDK Flight Recorder recording.
+ *
+ * Only one on-demand recording runs at a time. It keeps a bounded window on disk (max age and
+ * size), so it can be left running on a production node. Dumps are written to
+ * {@code diagnostics.jfr.dir}.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final String RECORDING_NAME = "edusync-on-demand";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${diagnostics.jfr.dir:recordings}")
+    private String recordingDir;
+
+    @Value("${diagnostics.jfr.max-age:30m}")
+    private Duration maxAge;
+
+    @Value("${diagnostics.jfr.max-size-bytes:268435456}")
+    private long maxSizeBytes;
+
+    private Recording recording;
+
+    /**
+     * Start a recording with a JDK settings file ({@code default} for ~1% overhead, {@code profile}
+     * for more detail). Fails if one is already running.
+     */
+    public synchronized Map<String, Object> start(String settings) throws IOException, ParseException {
+        if (isRunning()) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.enable(DocumentExtractionEvent.class);
+        newRecording.enable(StorageIoEvent.class);
+        newRecording.enable(CohereCallEvent.class);
+        newRecording.start();
+        recording = newRecording;
+        return status();
+    }
+
+    /** Stop the running recording and write it to a file. */
+    public synchronized Path stop() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No recording is running");
+        }
+        try {
+            recording.stop();
+            Path target = newDumpFile("recording");
+            recording.dump(target);
+            return target;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Write what has been recorded so far without stopping. With no on-demand recording running this
+     * snapshots whatever the JVM is recording anyway (e.g. {@code -XX:StartFlightRecording}).
+     */
+    public synchronized Path dump() throws IOException {
+        Path target = newDumpFile("snapshot");
+        if (isRunning()) {
+            recording.dump(target);
+            return target;
+        }
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            if (snapshot.getSize() == 0) {
+                throw new IllegalStateException("Nothing is being recorded");
+            }
+            snapshot.dump(target);
+        }
+        return target;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        if (recording != null) {
+            status.put("name", recording.getName());
+            status.put("state", recording.getState().name());
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("maxSizeBytes", recording.getMaxSize());
+        }
+        return status;
+    }
+
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    private Path newDumpFile(String kind) throws IOException {
+        Path dir = Paths.get(recordingDir).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        return dir.resolve("edusync-" + kind + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+    }
+}
@@ -0,0 +1,68 @@
+package com.edusync.diagnostics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from a stored file and commits a {@link StorageIoEvent} when the stream is
+ * closed. {@link #wrap} returns the stream untouched when no recording has the event enabled.
+ */
+public class RecordedInputStream extends FilterInputStream {
+
+    private final StorageIoEvent event;
+    private long bytesRead;
+    private boolean closed;
+
+    private RecordedInputStream(InputStream in, StorageIoEvent event) {
+        super(in);
+        this.event = event;
+    }
+
+    public static InputStream wrap(InputStream in, String fileName) {
+        StorageIoEvent event = new StorageIoEvent();
+        if (!event.isEnabled()) {
+            return in;
+        }
+        event.operation = StorageIoEvent.READ;
+        event.fileName = fileName;
+        event.begin();
+        return new RecordedInputStream(in, event);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            bytesRead++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            bytesRead += n;
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = bytesRead;
+                event.success = true;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.edusync.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A write or read of a stored upload. For reads the event spans from opening the stream until it
+ * is closed, so slow clients show up as long reads.
+ */
+@Name("com.edusync.StorageIo")
+@Label("Storage I/O")
+@Category({"EduSync", "Storage"})
+@Description("Bytes written to or read from the upload store")
+@StackTrace(false)
+public class StorageIoEvent extends jdk.jfr.Event {
+
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("File Name")
+    public String fileName;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
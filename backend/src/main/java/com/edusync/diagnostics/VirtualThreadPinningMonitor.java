@@ -0,0 +1,112 @@
+package com.edusync.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs virtual threads that stay pinned to their carrier (blocking inside {@code synchronized} or
+ * native code, e.g. in Tika parsers or the JDBC driver) for longer than
+ * {@code diagnostics.virtual-threads.pinned-threshold}.
+ *
+ * Only active when virtual threads are enabled. Each distinct pinning site is logged with its
+ * stack once at WARN and then every {@value #LOG_EVERY}th time; all occurrences are counted in
+ * {@code edusync.virtualthreads.pinned}.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOG_EVERY = 100;
+    private static final int LOGGED_FRAMES = 12;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${diagnostics.virtual-threads.pinned-threshold:20ms}")
+    private Duration threshold;
+
+    private final Map<String, AtomicLong> occurrencesBySite = new ConcurrentHashMap<>();
+
+    private Counter pinnedCounter;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        pinnedCounter = Counter.builder("edusync.virtualthreads.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started threshold={}", threshold);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        List<RecordedFrame> frames = event.getStackTrace() == null
+                ? List.of()
+                : event.getStackTrace().getFrames();
+        String site = frames.isEmpty() ? "unknown" : describe(frames.get(0));
+        long count = occurrencesBySite.computeIfAbsent(site, key -> new AtomicLong()).incrementAndGet();
+        if (count == 1 || count % LOG_EVERY == 0) {
+            log.warn("Virtual thread pinned duration={}ms thread={} occurrences={} stack:\n{}",
+                    event.getDuration().toMillis(),
+                    event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                    count, format(event.getStackTrace()));
+        }
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    <no stack trace>";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+            sb.append("    at ").append(describe(frames.get(i))).append('\n');
+        }
+        if (frames.size() > LOGGED_FRAMES || stackTrace.isTruncated()) {
+            sb.append("    ...");
+        }
+        return sb.toString();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        if (frame.getMethod() == null) {
+            return "?";
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
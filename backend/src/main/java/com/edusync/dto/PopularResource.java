@@ -0,0 +1,13 @@
+package com.edusync.dto;
+
+/**
+ * A resource in a "most viewed" / "most downloaded" ranking, with the count it is ranked by.
+ */
+public record PopularResource(
+        Long id,
+        String title,
+        String fileType,
+        String branch,
+        String subject,
+        long count) {
+}
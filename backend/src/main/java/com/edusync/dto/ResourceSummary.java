@@ -0,0 +1,20 @@
+package com.edusync.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a resource listing, built directly by the JPQL projections in ResourceRepository so
+ * listings never load managed Resource entities.
+ */
+public record ResourceSummary(
+        Long id,
+        String title,
+        String description,
+        String fileName,
+        Long fileSize,
+        String fileType,
+        Long uploadedBy,
+        LocalDateTime uploadedAt,
+        String branch,
+        String subject) {
+}
@@ -2,6 +2,7 @@ package com.edusync.entity;
 
 import java.time.LocalDateTime;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -11,9 +12,13 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "resources")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Resource {
     
     @Id
@@ -60,6 +65,13 @@ public class Resource {
     @Size(max = 100, message = "Subject must be less than 100 characters")
     @Column(name = "subject")
     private String subject;
+
+    // Taxonomy ids of branch/subject, which listings filter on (see TaxonomyService)
+    @Column(name = "branch_id")
+    private Integer branchId;
+
+    @Column(name = "subject_id")
+    private Integer subjectId;
     
     // Default constructor
     public Resource() {
@@ -153,4 +165,16 @@ public class Resource {
     public void setSubject(String subject) {
         this.subject = subject;
     }
+    public Integer getBranchId() {
+        return branchId;
+    }
+    public void setBranchId(Integer branchId) {
+        this.branchId = branchId;
+    }
+    public Integer getSubjectId() {
+        return subjectId;
+    }
+    public void setSubjectId(Integer subjectId) {
+        this.subjectId = subjectId;
+    }
 }
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -17,9 +18,14 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// Second-level cached; the profile picture lives in UserProfilePicture so cache entries stay small
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class User {
     
     @Id
@@ -49,9 +55,6 @@ public class User {
     @Enumerated(EnumType.STRING)
     private UserRole role;
     
-    @Column(name = "profile_picture", columnDefinition = "LONGTEXT")
-    private String profilePicture;
-    
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
@@ -162,14 +165,6 @@ public class User {
         this.role = role;
     }
     
-             public String getProfilePicture() {
-         return profilePicture;
-     }
- 
-     public void setProfilePicture(String profilePicture) {
-         this.profilePicture = profilePicture;
-     }
-    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,34 @@
+package com.edusync.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The profile picture column of {@code users}, mapped on its own so loading or caching a
+ * {@link User} never pulls the (base64, often large) image along. Rows are created together with
+ * the user; this entity only reads and updates the picture.
+ */
+@Entity
+@Table(name = "users")
+public class UserProfilePicture {
+
+    @Id
+    private Long id;
+
+    @Column(name = "profile_picture", columnDefinition = "LONGTEXT")
+    private String profilePicture;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getProfilePicture() {
+        return profilePicture;
+    }
+
+    public void setProfilePicture(String profilePicture) {
+        this.profilePicture = profilePicture;
+    }
+}
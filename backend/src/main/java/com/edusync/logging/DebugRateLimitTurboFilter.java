@@ -0,0 +1,59 @@
+package com.edusync.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps DEBUG and TRACE output per logger. Each logger may emit {@code eventsPerSecond} events per
+ * second; after that only every {@code sampleEvery}-th event gets through for the rest of that
+ * second. INFO and above are never dropped.
+ */
+public class DebugRateLimitTurboFilter extends TurboFilter {
+
+    private int eventsPerSecond = 100;
+    private int sampleEvery = 100;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isDebugEnabled() style checks, which are not events
+        if (format == null || level.toInt() > Level.DEBUG_INT || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        long count = window.next(System.currentTimeMillis() / 1000);
+        if (count <= eventsPerSecond || (count - eventsPerSecond) % sampleEvery == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    private static final class Window {
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicLong count = new AtomicLong();
+
+        long next(long now) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0);
+            }
+            return count.incrementAndGet();
+        }
+    }
+}
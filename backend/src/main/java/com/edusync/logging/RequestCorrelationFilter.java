@@ -0,0 +1,62 @@
+package com.edusync.logging;
+
+import com.edusync.diagnostics.AdminTokenVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every log line of a request with a correlation id ({@code requestId} in the MDC). The id
+ * is taken from {@code X-Request-Id} when the caller sends a sane one and echoed back in the
+ * response.
+ *
+ * A request with {@code X-Debug-Sql: true} and a valid admin token also gets {@code sqlTrace} in
+ * the MDC, which {@link SqlTraceTurboFilter} uses to log that request's SQL.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String DEBUG_SQL_HEADER = "X-Debug-Sql";
+    public static final String REQUEST_ID_KEY = "requestId";
+    public static final String SQL_TRACE_KEY = "sqlTrace";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Autowired
+    private AdminTokenVerifier adminTokenVerifier;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        MDC.put(REQUEST_ID_KEY, requestId);
+        if ("true".equalsIgnoreCase(request.getHeader(DEBUG_SQL_HEADER))
+                && adminTokenVerifier.isValid(request.getHeader(AdminTokenVerifier.HEADER))) {
+            MDC.put(SQL_TRACE_KEY, "true");
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(SQL_TRACE_KEY);
+        }
+    }
+}
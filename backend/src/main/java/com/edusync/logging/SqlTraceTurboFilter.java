@@ -0,0 +1,28 @@
+package com.edusync.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets Hibernate's SQL and bind-parameter loggers through for requests that asked for SQL tracing
+ * (see {@link RequestCorrelationFilter}), regardless of their configured level. Everywhere else
+ * those loggers stay at their normal level, so tracing one call costs nothing for the others.
+ */
+public class SqlTraceTurboFilter extends TurboFilter {
+
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+    private static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        String name = logger.getName();
+        if (!name.startsWith(SQL_LOGGER) && !name.startsWith(BIND_LOGGER)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "true".equals(MDC.get(RequestCorrelationFilter.SQL_TRACE_KEY)) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,43 @@
+package com.edusync.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hit/miss counters for one in-process cache, published as {@code cache.gets{result=hit|miss}}
+ * plus an {@code edusync.cache.hit.ratio} gauge. The owning service must keep a reference to the
+ * meter, since the gauge only holds it weakly.
+ */
+public class CacheMeter {
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CacheMeter(MeterRegistry registry, String cacheName) {
+        this.hits = Counter.builder("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("edusync.cache.hit.ratio", this, CacheMeter::hitRatio)
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+}
@@ -0,0 +1,33 @@
+package com.edusync.metrics;
+
+import java.util.Set;
+
+/**
+ * Tag values shared by the application meters. Everything is mapped onto a small fixed set so the
+ * number of time series stays bounded no matter what users upload.
+ */
+public final class MetricTags {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private static final Set<String> KNOWN_FILE_TYPES = Set.of(
+            "pdf", "doc", "docx", "ppt", "pptx", "xls", "xlsx", "txt", "rtf",
+            "jpg", "jpeg", "png", "gif", "mp4", "avi", "mov", "zip");
+
+    private MetricTags() {
+    }
+
+    /** Lower-case file extension if it is a known type, otherwise {@code other}. */
+    public static String fileType(String fileName) {
+        if (fileName == null || !fileName.contains(".")) {
+            return "none";
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
+        return KNOWN_FILE_TYPES.contains(extension) ? extension : "other";
+    }
+
+    public static String outcome(boolean success) {
+        return success ? SUCCESS : ERROR;
+    }
+}
@@ -11,6 +11,7 @@ import java.util.List;
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
     List<Activity> findByStudentIdOrderByCreatedAtDesc(Long studentId);
     List<Activity> findByStatusOrderByCreatedAtDesc(Status status);
+    List<Activity> findByStudentIdAndStatusOrderByCreatedAtDesc(Long studentId, Status status);
     List<Activity> findByStudentIdAndCategoryInOrderByCreatedAtDesc(Long studentId, List<String> categories);
 }
 
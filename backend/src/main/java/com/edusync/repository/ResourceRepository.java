@@ -1,16 +1,47 @@
 package com.edusync.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.edusync.dto.ResourceSummary;
 import com.edusync.entity.Resource;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
+
+    String SUMMARY_SELECT = "SELECT new com.edusync.dto.ResourceSummary(r.id, r.title, COALESCE(r.description, ''), " +
+            "r.fileName, r.fileSize, r.fileType, r.uploadedBy, r.uploadedAt, r.branch, r.subject) FROM Resource r ";
+
+    // MySQL Connector/J only streams rows one at a time (instead of buffering the whole result)
+    // with this fetch size
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    // Listing projections; streams must be consumed and closed inside a transaction
+    @Query(SUMMARY_SELECT + "ORDER BY r.uploadedAt DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<ResourceSummary> streamAllSummaries();
+
+    // Branch/subject filters compare taxonomy ids (see TaxonomyService); a subject id implies its branch
+    @Query(SUMMARY_SELECT + "WHERE r.branchId = :branchId ORDER BY r.uploadedAt DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<ResourceSummary> streamSummariesByBranchId(@Param("branchId") Integer branchId);
+
+    @Query(SUMMARY_SELECT + "WHERE r.subjectId = :subjectId ORDER BY r.uploadedAt DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<ResourceSummary> streamSummariesBySubjectId(@Param("subjectId") Integer subjectId);
+
+    @Query(SUMMARY_SELECT + "WHERE r.uploadedBy = :uploadedBy ORDER BY r.uploadedAt DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    Stream<ResourceSummary> streamSummariesByUploader(@Param("uploadedBy") Long uploadedBy);
     
     // Find resources by uploaded user
     List<Resource> findByUploadedByOrderByUploadedAtDesc(Long uploadedBy);
@@ -21,9 +52,6 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
     // Find resources by file type
     List<Resource> findByFileTypeContainingIgnoreCaseOrderByUploadedAtDesc(String fileType);
     
-    List<Resource> findByBranch(String branch);   // ✅ filter by branch
-    List<Resource> findByBranchAndSubjectIgnoreCase(String branch, String subject);
-
     // Search resources by title or description
     @Query("SELECT r FROM Resource r WHERE " +
            "LOWER(r.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
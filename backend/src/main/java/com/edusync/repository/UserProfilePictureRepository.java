@@ -0,0 +1,9 @@
+package com.edusync.repository;
+
+import com.edusync.entity.UserProfilePicture;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserProfilePictureRepository extends JpaRepository<UserProfilePicture, Long> {
+}
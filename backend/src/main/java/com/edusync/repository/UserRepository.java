@@ -1,15 +1,28 @@
 package com.edusync.repository;
 
 import com.edusync.entity.User;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Looked up on nearly every request; results are cached (see hibernate-caffeine.conf)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-by-email")
+    })
     Optional<User> findByEmail(String email);
     Optional<User> findByEmailIgnoreCase(String email);
     List<User> findByRole(com.edusync.entity.User.UserRole role);
+
+    @Query("SELECT u.id FROM User u WHERE u.role = :role ORDER BY u.id")
+    List<Long> findIdsByRole(@Param("role") com.edusync.entity.User.UserRole role);
 }
@@ -7,6 +7,7 @@ import com.edusync.repository.ActivityRepository;
 import com.edusync.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -25,6 +26,9 @@ public class ActivityService {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
     public Activity submitActivity(Activity activity, MultipartFile certificate, String userEmail) throws Exception {
         User user = userRepository.findByEmail(userEmail).orElse(null);
         if (user == null) throw new Exception("User not found");
@@ -36,19 +40,22 @@ public class ActivityService {
             String stored = fileStorageService.storeResourceFile(certificate);
             activity.setCertificateFile(stored);
         }
-        return activityRepository.save(activity);
+        return savePortfolioActivity(activity);
     }
 
+    @Transactional(readOnly = true)
     public List<Activity> getMyActivities(String userEmail) throws Exception {
         User user = userRepository.findByEmail(userEmail).orElse(null);
         if (user == null) throw new Exception("User not found");
         return activityRepository.findByStudentIdOrderByCreatedAtDesc(user.getId());
     }
 
+    @Transactional(readOnly = true)
     public List<Activity> getPendingActivities() {
         return activityRepository.findByStatusOrderByCreatedAtDesc(Status.PENDING);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Activity> findById(Long id) {
         return activityRepository.findById(id);
     }
@@ -64,7 +71,7 @@ public class ActivityService {
         activity.setApprovedBy(faculty.getId());
         activity.setApprovedAt(LocalDateTime.now());
         activity.setRejectionReason(null);
-        return activityRepository.save(activity);
+        return savePortfolioActivity(activity);
     }
 
     public Activity rejectActivity(Long id, String facultyEmail, String reason) throws Exception {
@@ -78,7 +85,7 @@ public class ActivityService {
         activity.setApprovedBy(faculty.getId());
         activity.setApprovedAt(LocalDateTime.now());
         activity.setRejectionReason(reason);
-        return activityRepository.save(activity);
+        return savePortfolioActivity(activity);
     }
 
     // Certifications helpers
@@ -93,9 +100,10 @@ public class ActivityService {
             String stored = fileStorageService.storeResourceFile(certificate);
             activity.setCertificateFile(stored);
         }
-        return activityRepository.save(activity);
+        return savePortfolioActivity(activity);
     }
 
+    @Transactional(readOnly = true)
     public List<Activity> getMyCertifications(String userEmail) throws Exception {
         User user = userRepository.findByEmail(userEmail).orElse(null);
         if (user == null) throw new Exception("User not found");
@@ -114,6 +122,14 @@ public class ActivityService {
             fileStorageService.deleteResourceFile(a.getCertificateFile());
         }
         activityRepository.delete(a);
+        collectionVersionService.bump(CollectionVersionService.portfolio(a.getStudentId()));
+    }
+
+    // Activities make up the student's portfolio, so every change bumps its version
+    private Activity savePortfolioActivity(Activity activity) {
+        Activity saved = activityRepository.save(activity);
+        collectionVersionService.bump(CollectionVersionService.portfolio(saved.getStudentId()));
+        return saved;
     }
 }
 
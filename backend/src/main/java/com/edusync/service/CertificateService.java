@@ -1,6 +1,5 @@
 package com.edusync.service;
 
-import java.io.File;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +16,12 @@ public class CertificateService {
     @Autowired
     private CertificateRepository certificateRepository;
 
+    @Autowired
+    private PreviewService previewService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
     // Save certificate with only title + filePath
     public Certificate saveCertificate(Long userId, String title, String filePath) {
         Certificate certificate = new Certificate();
@@ -44,16 +49,13 @@ public class CertificateService {
         return certificateRepository.findByUserId(userId);
     }
 
-    // Delete certificate by id & userId (also removes file from disk)
+    // Delete certificate by id & userId (also removes the stored file)
     public boolean deleteCertificate(Long id, Long userId) {
         Optional<Certificate> certOpt = certificateRepository.findById(id);
         if (certOpt.isPresent() && certOpt.get().getUserId().equals(userId)) {
             Certificate cert = certOpt.get();
-            // Delete file from disk
-            File file = new File(cert.getFilePath());
-            if (file.exists()) {
-                file.delete();
-            }
+            fileStorageService.deleteCertificateFile(cert.getFilePath());
+            previewService.deletePreview(FileStorageService.certificateKey(cert.getFilePath()));
             certificateRepository.deleteById(id);
             return true;
         }
@@ -0,0 +1,84 @@
+package com.edusync.service;
+
+import com.edusync.entity.ChatMessage;
+import com.edusync.entity.ChatThread;
+import com.edusync.entity.User;
+import com.edusync.repository.ChatMessageRepository;
+import com.edusync.repository.ChatThreadRepository;
+import com.edusync.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ChatService {
+
+    @Autowired
+    private ChatThreadRepository chatThreadRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Transactional
+    public ChatThread createThread(Long studentId, Long facultyId, String subject) {
+        ChatThread t = new ChatThread();
+        t.setStudentId(studentId);
+        t.setFacultyId(facultyId);
+        t.setSubject(subject);
+        t.setLastMessageAt(LocalDateTime.now());
+        ChatThread saved = chatThreadRepository.save(t);
+        collectionVersionService.bump(CollectionVersionService.studentThreads(studentId),
+                CollectionVersionService.facultyThreads(facultyId));
+        return saved;
+    }
+
+    // Post a message and move the thread to the top of both participants' lists
+    @Transactional
+    public ChatMessage sendMessage(Long threadId, Long senderId, String senderRole, String content) {
+        ChatMessage m = new ChatMessage();
+        m.setThreadId(threadId);
+        m.setSenderId(senderId);
+        m.setSenderRole(senderRole);
+        m.setContent(content);
+        ChatMessage saved = chatMessageRepository.save(m);
+
+        chatThreadRepository.findById(threadId).ifPresent(t -> {
+            t.setLastMessageAt(LocalDateTime.now());
+            t.setUpdatedAt(LocalDateTime.now());
+            chatThreadRepository.save(t);
+            collectionVersionService.bump(CollectionVersionService.studentThreads(t.getStudentId()),
+                    CollectionVersionService.facultyThreads(t.getFacultyId()));
+        });
+        collectionVersionService.bump(CollectionVersionService.threadMessages(threadId));
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<User> getUsersByRole(User.UserRole role) {
+        return userRepository.findByRole(role);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChatThread> getStudentThreads(Long studentId) {
+        return chatThreadRepository.findByStudentIdOrderByLastMessageAtDesc(studentId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChatThread> getFacultyThreads(Long facultyId) {
+        return chatThreadRepository.findByFacultyIdOrderByLastMessageAtDesc(facultyId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ChatMessage> getMessages(Long threadId) {
+        return chatMessageRepository.findByThreadIdOrderByCreatedAtAsc(threadId);
+    }
+}
@@ -0,0 +1,108 @@
+package com.edusync.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Version stamps for collections the frontend polls, stored in {@code collection_versions}.
+ *
+ * Writers bump every collection they change (after or in the same transaction as the change);
+ * list endpoints read the version first and answer {@code If-None-Match} with a 304 without
+ * running the list query. A key that was never bumped is at version 0.
+ */
+@Service
+public class CollectionVersionService {
+
+    private static final String BUMP_SQL = "INSERT INTO collection_versions (collection_key, version) VALUES (?, 1) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void bump(String... keys) {
+        // Fixed order so concurrent writers lock the rows in the same sequence
+        List<Object[]> args = Arrays.stream(keys)
+                .distinct()
+                .sorted()
+                .map(key -> new Object[] { key })
+                .toList();
+        jdbcTemplate.batchUpdate(BUMP_SQL, args);
+    }
+
+    // Read-only so it is served by the same database (replica or primary) as the listing it
+    // describes; the listing is then never older than its version
+    @Transactional(readOnly = true)
+    public long version(String key) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM collection_versions WHERE collection_key = ?", Long.class, key);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    /** Weak ETag for the current version of one collection. */
+    public String etag(String key) {
+        return etag(version(key));
+    }
+
+    public static String etag(long version) {
+        return "W/\"v" + version + "\"";
+    }
+
+    // Collection keys
+
+    public static String allResources() {
+        return "resources";
+    }
+
+    public static String resourcesByBranch(String branch) {
+        return "resources:branch:" + normalize(branch);
+    }
+
+    public static String resourcesByBranchAndSubject(String branch, String subject) {
+        return resourcesByBranch(branch) + ":subject:" + normalize(subject);
+    }
+
+    public static String resourcesByUploader(Long uploadedBy) {
+        return "resources:uploader:" + uploadedBy;
+    }
+
+    /** The key matching the listing ResourceListingService writes for these filters. */
+    public static String resourceListing(String branch, String subject) {
+        if (TaxonomyService.isAll(branch)) {
+            return allResources();
+        }
+        if (subject != null && !subject.isBlank()) {
+            return resourcesByBranchAndSubject(branch, subject);
+        }
+        return resourcesByBranch(branch);
+    }
+
+    public static String studentThreads(Long studentId) {
+        return "chat:student:" + studentId;
+    }
+
+    public static String facultyThreads(Long facultyId) {
+        return "chat:faculty:" + facultyId;
+    }
+
+    public static String threadMessages(Long threadId) {
+        return "chat:thread:" + threadId;
+    }
+
+    public static String portfolio(Long studentId) {
+        return "portfolio:" + studentId;
+    }
+
+    public static String taxonomy() {
+        return "taxonomy";
+    }
+
+    // Branch and subject filters ignore case and spacing, like the taxonomy lookups
+    private static String normalize(String value) {
+        return value == null ? "" : TaxonomyService.canonicalKey(value);
+    }
+}
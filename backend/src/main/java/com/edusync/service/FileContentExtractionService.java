@@ -1,5 +1,9 @@
 package com.edusync.service;
 
+import com.edusync.diagnostics.DocumentExtractionEvent;
+import com.edusync.metrics.MetricTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
 import org.apache.tika.metadata.Metadata;
@@ -7,6 +11,9 @@ import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
 import org.apache.tika.parser.Parser;
 import org.apache.tika.sax.BodyContentHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.xml.sax.SAXException;
 
@@ -18,9 +25,14 @@ import java.nio.file.Paths;
 @Service
 public class FileContentExtractionService {
 
+    private static final Logger log = LoggerFactory.getLogger(FileContentExtractionService.class);
+
     private final Tika tika = new Tika();
     private final AutoDetectParser parser = new AutoDetectParser();
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Extract text content from a file
      */
@@ -36,7 +48,7 @@ public class FileContentExtractionService {
             return extractTextWithTika(path);
             
         } catch (Exception e) {
-            System.err.println("Error extracting text from file: " + filePath + " - " + e.getMessage());
+            log.warn("Error extracting text from {}: {}", filePath, e.getMessage());
             throw new Exception("Failed to extract text from file: " + e.getMessage());
         }
     }
@@ -45,14 +57,20 @@ public class FileContentExtractionService {
      * Extract text content from a file using Apache Tika
      */
     private String extractTextWithTika(Path filePath) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        DocumentExtractionEvent event = new DocumentExtractionEvent();
+        event.begin();
+        boolean extracted = false;
+        long charsProduced = 0;
+
+        // Create metadata object
+        Metadata metadata = new Metadata();
+
         try (InputStream inputStream = Files.newInputStream(filePath)) {
             
             // Create a content handler to extract text
             BodyContentHandler handler = new BodyContentHandler(10 * 1024 * 1024); // 10MB limit
             
-            // Create metadata object
-            Metadata metadata = new Metadata();
-            
             // Create parse context
             ParseContext parseContext = new ParseContext();
             parseContext.set(Parser.class, parser);
@@ -68,10 +86,36 @@ public class FileContentExtractionService {
             }
             
             // Clean up the text
-            return cleanExtractedText(extractedText);
+            String cleaned = cleanExtractedText(extractedText);
+            charsProduced = cleaned.length();
+            extracted = true;
+            return cleaned;
             
         } catch (IOException | SAXException | TikaException e) {
             throw new Exception("Error parsing file with Tika: " + e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("edusync.extraction.tika")
+                    .description("Time for Tika to parse a file into plain text")
+                    .tag("file.type", MetricTags.fileType(filePath.getFileName().toString()))
+                    .tag("outcome", MetricTags.outcome(extracted))
+                    .register(meterRegistry));
+            event.end();
+            if (event.shouldCommit()) {
+                event.fileName = filePath.getFileName().toString();
+                event.fileSize = sizeOf(filePath);
+                event.mimeType = metadata.get(Metadata.CONTENT_TYPE);
+                event.charsProduced = charsProduced;
+                event.success = extracted;
+                event.commit();
+            }
+        }
+    }
+
+    private long sizeOf(Path filePath) {
+        try {
+            return Files.size(filePath);
+        } catch (IOException e) {
+            return -1;
         }
     }
 
@@ -136,7 +180,7 @@ public class FileContentExtractionService {
                 mimeType.equals("text/rtf")
             );
         } catch (Exception e) {
-            System.err.println("Error checking file type support: " + e.getMessage());
+            log.warn("Error checking file type support: {}", e.getMessage());
             return false;
         }
     }
@@ -149,7 +193,7 @@ public class FileContentExtractionService {
             // First try with Tika
             return extractTextFromFile(filePath);
         } catch (Exception e) {
-            System.err.println("Tika extraction failed, trying fallback methods: " + e.getMessage());
+            log.debug("Tika extraction failed, trying plain text: {}", e.getMessage());
             
             // Fallback: try to read as plain text
             try {
@@ -1,7 +1,21 @@
 package com.edusync.service;
 
-import com.edusync.config.FileStorageConfig;
+import com.edusync.diagnostics.RecordedInputStream;
+import com.edusync.diagnostics.StorageIoEvent;
+import com.edusync.metrics.MetricTags;
+import com.edusync.storage.AtRestCompression;
+import com.edusync.storage.CompressedObjectResource;
+import com.edusync.storage.LocalFile;
+import com.edusync.storage.ObjectStorage;
+import com.edusync.storage.ObjectStorageResource;
+import com.edusync.storage.StoredObject;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
@@ -9,40 +23,66 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+/**
+ * Stores uploads in the configured {@link ObjectStorage}: profile images under their bare file
+ * name, resources and activity certificates under {@code resources/}, certificates under
+ * {@code certificates/}. Callers see file names (or, for certificates, the stored key) and never
+ * depend on where the bytes live.
+ *
+ * Text-heavy resource files are stored gzipped when a sample shows they compress well (see
+ * {@link AtRestCompression}). Reads are transparent: streams, local copies and sizes are those of
+ * the original file, and the loaded resource exposes the gzip bytes for Content-Encoding.
+ */
 @Service
 public class FileStorageService {
 
-    private final Path fileStorageLocation;
-    private final Path resourceStorageLocation;
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final String RESOURCES = "resources/";
+    private static final String CERTIFICATES = "certificates/";
+
+    private final ObjectStorage storage;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${storage.compression.max-ratio:0.8}")
+    private double compressionMaxRatio;
+
+    @Value("${storage.compression.min-bytes:1024}")
+    private long compressionMinBytes;
 
     @Autowired
-    public FileStorageService(FileStorageConfig fileStorageConfig) {
-        this.fileStorageLocation = Paths.get(fileStorageConfig.getUploadDir())
-                .toAbsolutePath().normalize();
-        this.resourceStorageLocation = Paths.get(fileStorageConfig.getUploadDir() + "/resources")
-                .toAbsolutePath().normalize();
+    public FileStorageService(ObjectStorage storage, MeterRegistry meterRegistry) {
+        this.storage = storage;
+        this.meterRegistry = meterRegistry;
+        log.info("Storing uploads in {}", storage.describe());
+    }
 
-        try {
-            // Create directories if they don't exist
-            if (!Files.exists(this.fileStorageLocation)) {
-                Files.createDirectories(this.fileStorageLocation);
-                System.out.println("Created profile pictures directory: " + this.fileStorageLocation);
-            }
-            if (!Files.exists(this.resourceStorageLocation)) {
-                Files.createDirectories(this.resourceStorageLocation);
-                System.out.println("Created resources directory: " + this.resourceStorageLocation);
-            }
-        } catch (Exception ex) {
-            System.err.println("Error creating upload directories: " + ex.getMessage());
-            throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
+    public static String resourceKey(String fileName) {
+        return RESOURCES + fileName;
+    }
+
+    /**
+     * Storage key of a certificate. Rows written before the storage backend existed hold the
+     * absolute path of the file under {@code uploads/certificates}; only its name is used.
+     */
+    public static String certificateKey(String filePath) {
+        if (filePath.startsWith(CERTIFICATES)) {
+            return filePath;
         }
+        int separator = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf('\\'));
+        return CERTIFICATES + filePath.substring(separator + 1);
     }
 
     public String storeFile(MultipartFile file, Long userId) {
@@ -62,10 +102,7 @@ public class FileStorageService {
             }
             
             String fileName = "profile_" + userId + "_" + UUID.randomUUID().toString() + fileExtension;
-
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            writeRecorded(fileName, file.getInputStream(), file.getSize(), file.getContentType());
 
             return fileName;
         } catch (IOException ex) {
@@ -74,30 +111,18 @@ public class FileStorageService {
     }
 
     public Resource loadFileAsResource(String fileName) {
-        try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists()) {
-                return resource;
-            } else {
-                throw new RuntimeException("File not found " + fileName);
-            }
-        } catch (MalformedURLException ex) {
-            throw new RuntimeException("File not found " + fileName, ex);
-        }
+        return loadExisting(fileName, "File not found " + fileName);
     }
 
     public void deleteFile(String fileName) {
-        try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
-        } catch (IOException ex) {
-            System.err.println("Could not delete file " + fileName + ": " + ex.getMessage());
-        }
+        delete(fileName);
     }
 
     // Resource file methods
     public String storeResourceFile(MultipartFile file) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String fileType = MetricTags.fileType(file == null ? null : file.getOriginalFilename());
+        boolean stored = false;
         try {
             // Validate file
             if (file == null || file.isEmpty()) {
@@ -122,69 +147,240 @@ public class FileStorageService {
             
             // Create a safe filename with timestamp and UUID
             String fileName = "resource_" + System.currentTimeMillis() + "_" + UUID.randomUUID().toString() + fileExtension;
-
-            // Ensure resources directory exists
-            if (!Files.exists(this.resourceStorageLocation)) {
-                Files.createDirectories(this.resourceStorageLocation);
-                System.out.println("Created resources directory: " + this.resourceStorageLocation);
+            if (shouldCompress(fileName, file)) {
+                writeCompressed(resourceKey(fileName), file);
+            } else {
+                writeRecorded(resourceKey(fileName), file.getInputStream(), file.getSize(), file.getContentType());
             }
 
-            // Store in resources directory
-            Path targetLocation = this.resourceStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            System.out.println("File stored successfully: " + fileName + " at " + targetLocation);
+            log.debug("Stored resource file {} ({} bytes)", fileName, file.getSize());
+            DistributionSummary.builder("edusync.storage.store.size")
+                    .baseUnit("bytes")
+                    .tag("file.type", fileType)
+                    .register(meterRegistry)
+                    .record(file.getSize());
+            stored = true;
             return fileName;
         } catch (IOException ex) {
-            System.err.println("Error storing resource file: " + ex.getMessage());
+            log.error("Error storing resource file", ex);
             throw new RuntimeException("Could not store resource file. Please try again!", ex);
         } catch (Exception ex) {
-            System.err.println("Unexpected error storing resource file: " + ex.getMessage());
+            log.error("Unexpected error storing resource file", ex);
             throw new RuntimeException("Unexpected error occurred while storing file", ex);
+        } finally {
+            sample.stop(Timer.builder("edusync.storage.store")
+                    .description("Time to write an uploaded resource file to storage")
+                    .tag("file.type", fileType)
+                    .tag("outcome", MetricTags.outcome(stored))
+                    .register(meterRegistry));
         }
     }
 
     public Resource loadResourceFileAsResource(String fileName) {
-        try {
-            Path filePath = this.resourceStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists()) {
-                return resource;
-            } else {
-                throw new RuntimeException("Resource file not found " + fileName);
+        return loadExisting(resourceKey(fileName), "Resource file not found " + fileName);
+    }
+
+    public void deleteResourceFile(String fileName) {
+        delete(resourceKey(fileName));
+    }
+
+    /** Store a certificate under {@code fileName} and return the key to save on the Certificate. */
+    public String storeCertificateFile(MultipartFile file, String fileName) throws IOException {
+        String key = CERTIFICATES + fileName;
+        writeRecorded(key, file.getInputStream(), file.getSize(), file.getContentType());
+        return key;
+    }
+
+    /** The certificate file, or empty if it is missing. */
+    public Optional<Resource> loadCertificateFile(String filePath) throws IOException {
+        return load(certificateKey(filePath));
+    }
+
+    public void deleteCertificateFile(String filePath) {
+        delete(certificateKey(filePath));
+    }
+
+    /**
+     * A stored object as a local file for libraries that need one (text extraction, thumbnails).
+     * Close it when done; remote objects are downloaded to a temporary file.
+     */
+    public LocalFile localCopy(String key) throws IOException {
+        if (compressedObject(key).isEmpty()) {
+            return storage.localCopy(key);
+        }
+        // Keep the file name (and so the extension) for type detection
+        Path temp = Files.createTempFile("edusync-", "-" + ObjectStorage.fileName(key));
+        try (InputStream in = openStream(key)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        return new LocalFile(temp, true);
+    }
+
+    /** Size and modification time of the file as uploaded, whether or not it is stored compressed. */
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Optional<StoredObject> compressed = compressedObject(key);
+        if (compressed.isPresent()) {
+            return Optional.of(new StoredObject(key, AtRestCompression.uncompressedSize(storage, compressed.get()),
+                    compressed.get().lastModified()));
+        }
+        return storage.stat(key);
+    }
+
+    /** The file's original contents, decompressed if it is stored compressed. */
+    public InputStream openStream(String key) throws IOException {
+        if (compressedObject(key).isPresent()) {
+            InputStream in = storage.read(AtRestCompression.compressedKey(key));
+            try {
+                return RecordedInputStream.wrap(new GZIPInputStream(in, 64 * 1024), ObjectStorage.fileName(key));
+            } catch (IOException | RuntimeException ex) {
+                in.close();
+                throw ex;
             }
-        } catch (MalformedURLException ex) {
-            throw new RuntimeException("Resource file not found " + fileName, ex);
         }
+        return RecordedInputStream.wrap(storage.read(key), ObjectStorage.fileName(key));
     }
 
-    public void deleteResourceFile(String fileName) {
+    // The gzipped copy of key, if the file type may be stored compressed and it was
+    private Optional<StoredObject> compressedObject(String key) throws IOException {
+        if (!AtRestCompression.isCompressible(key)) {
+            return Optional.empty();
+        }
+        return storage.stat(AtRestCompression.compressedKey(key));
+    }
+
+    private Resource loadExisting(String key, String notFoundMessage) {
+        try {
+            return load(key).orElseThrow(() -> new RuntimeException(notFoundMessage));
+        } catch (IOException ex) {
+            throw new RuntimeException(notFoundMessage, ex);
+        }
+    }
+
+    /**
+     * Local files are served as file resources (so HotFileCache can pick them up); remote objects
+     * as lazily opened, range-aware resources. Either way reads emit a {@link StorageIoEvent}.
+     */
+    private Optional<Resource> load(String key) throws IOException {
+        Optional<StoredObject> compressed = compressedObject(key);
+        if (compressed.isPresent()) {
+            String compressedKey = AtRestCompression.compressedKey(key);
+            return loadStored(compressedKey).map(encoded -> new CompressedObjectResource(key, encoded,
+                    uncompressedSizeQuietly(compressed.get())));
+        }
+        return loadStored(key);
+    }
+
+    private long uncompressedSizeQuietly(StoredObject compressed) {
+        try {
+            return AtRestCompression.uncompressedSize(storage, compressed);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read size of " + compressed.key(), ex);
+        }
+    }
+
+    private Optional<Resource> loadStored(String key) throws IOException {
+        String fileName = ObjectStorage.fileName(key);
+        Optional<Path> local = storage.localPath(key);
+        if (local.isPresent()) {
+            return Optional.of(recordedResource(local.get(), fileName));
+        }
+        return storage.stat(key).map(object -> new ObjectStorageResource(storage, object) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return RecordedInputStream.wrap(super.getInputStream(), fileName);
+            }
+        });
+    }
+
+    private void delete(String key) {
         try {
-            Path filePath = this.resourceStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
+            storage.delete(key);
+            if (AtRestCompression.isCompressible(key)) {
+                storage.delete(AtRestCompression.compressedKey(key));
+            }
         } catch (IOException ex) {
-            System.err.println("Could not delete resource file " + fileName + ": " + ex.getMessage());
+            log.warn("Could not delete {}: {}", key, ex.getMessage());
+        }
+    }
+
+    private boolean shouldCompress(String fileName, MultipartFile file) throws IOException {
+        return compressionEnabled
+                && file.getSize() >= compressionMinBytes
+                && AtRestCompression.isCompressible(fileName)
+                && AtRestCompression.worthCompressing(file.getInputStream(), compressionMaxRatio);
+    }
+
+    /** Gzip an upload into a temporary file, then store it as {@code <key>.gz}. */
+    private void writeCompressed(String key, MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile("edusync-", AtRestCompression.SUFFIX);
+        try {
+            AtRestCompression.compress(file.getInputStream(), temp);
+            long compressedSize = Files.size(temp);
+            writeRecorded(AtRestCompression.compressedKey(key), Files.newInputStream(temp), compressedSize, "application/gzip");
+            DistributionSummary.builder("edusync.storage.compression.saved")
+                    .description("Bytes saved by storing an upload gzipped")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(Math.max(0, file.getSize() - compressedSize));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Write {@code size} bytes to storage, emitting a {@link StorageIoEvent} with the bytes written.
+     */
+    private void writeRecorded(String key, InputStream content, long size, String contentType) throws IOException {
+        StorageIoEvent event = new StorageIoEvent();
+        event.begin();
+        boolean written = false;
+        try {
+            storage.write(key, content, size, contentType);
+            written = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = StorageIoEvent.WRITE;
+                event.fileName = ObjectStorage.fileName(key);
+                event.bytes = written ? size : 0;
+                event.success = written;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * A file resource whose streams emit a {@link StorageIoEvent} when closed, so reads done by the
+     * message converters while serving a download are recorded too.
+     */
+    private Resource recordedResource(Path filePath, String fileName) {
+        try {
+            return new UrlResource(filePath.toUri()) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return RecordedInputStream.wrap(super.getInputStream(), fileName);
+                }
+            };
+        } catch (MalformedURLException ex) {
+            throw new IllegalStateException("Invalid file path " + filePath, ex);
         }
     }
     
-    // Utility method to check if upload directories are accessible
+    // Utility method to check if the storage backend is reachable and writable
     public boolean areUploadDirectoriesAccessible() {
         try {
-            return Files.isDirectory(this.fileStorageLocation) && 
-                   Files.isDirectory(this.resourceStorageLocation) &&
-                   Files.isWritable(this.fileStorageLocation) &&
-                   Files.isWritable(this.resourceStorageLocation);
+            return storage.isAvailable();
         } catch (Exception e) {
-            System.err.println("Error checking upload directory accessibility: " + e.getMessage());
+            log.warn("Error checking storage accessibility: {}", e.getMessage());
             return false;
         }
     }
     
-    // Get upload directory paths for debugging
+    // Where uploads are stored, for debugging
     public String getUploadDirectoryInfo() {
-        return String.format("Profile Pictures: %s, Resources: %s", 
-                           this.fileStorageLocation.toString(), 
-                           this.resourceStorageLocation.toString());
+        return storage.describe();
     }
 }
-
@@ -0,0 +1,246 @@
+package com.edusync.service;
+
+import com.edusync.metrics.CacheMeter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the contents of small, frequently served files in direct (off-heap) buffers.
+ *
+ * A file is only admitted after it has been requested {@code min-hits} times, and when the byte
+ * budget is full it only displaces least recently used entries that were requested less often
+ * than itself (TinyLFU-style admission), so a burst of one-off downloads cannot flush syllabi and
+ * timetables out of the cache. Access counts are halved periodically so old popularity fades.
+ *
+ * Entries are keyed by file location, size and modification time like the ETag cache, so a
+ * replaced file is read from disk again. The budget counts against {@code -XX:MaxDirectMemorySize},
+ * not the heap; evicted buffers are released when they are garbage collected.
+ */
+@Service
+public class HotFileCache {
+
+    private static final int AGING_SAMPLE_SIZE = 10_000;
+
+    @Value("${static-files.hot-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${static-files.hot-cache.max-file-bytes:1048576}")
+    private long maxFileBytes;
+
+    @Value("${static-files.hot-cache.min-hits:3}")
+    private int minHits;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guards all fields below
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Integer> frequencies = new HashMap<>();
+    private long totalBytes;
+    private int accessesSinceAging;
+
+    private CacheMeter cacheMeter;
+
+    @PostConstruct
+    void registerMetrics() {
+        cacheMeter = new CacheMeter(meterRegistry, "hot-files");
+        Gauge.builder("cache.size", this, cache -> cache.snapshot()[0])
+                .tag("cache", "hot-files")
+                .register(meterRegistry);
+        Gauge.builder("edusync.cache.bytes", this, cache -> cache.snapshot()[1])
+                .tag("cache", "hot-files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@code file} served from memory when it is cached (or has just become hot enough to be),
+     * otherwise {@code file} itself. Only files on the local file system are considered.
+     */
+    public Resource lookup(Resource file, long contentLength, long lastModified) throws IOException {
+        if (!file.isFile() || contentLength <= 0 || contentLength > maxFileBytes || contentLength > maxBytes) {
+            return file;
+        }
+        String key = file.getURI() + ":" + contentLength + ":" + lastModified;
+
+        int frequency;
+        synchronized (entries) {
+            ByteBuffer cached = entries.get(key);
+            frequency = recordAccess(key);
+            if (cached != null) {
+                cacheMeter.hit();
+                return new CachedFileResource(file, cached, lastModified);
+            }
+        }
+        cacheMeter.miss();
+        if (frequency < minHits) {
+            return file;
+        }
+
+        ByteBuffer contents = read(file, contentLength);
+        if (contents == null) {
+            return file;
+        }
+        synchronized (entries) {
+            if (!entries.containsKey(key) && !admit(key, contents, frequency)) {
+                return file;
+            }
+        }
+        return new CachedFileResource(file, contents, lastModified);
+    }
+
+    private int recordAccess(String key) {
+        int frequency = frequencies.merge(key, 1, Integer::sum);
+        if (++accessesSinceAging >= AGING_SAMPLE_SIZE) {
+            frequencies.replaceAll((k, count) -> count / 2);
+            frequencies.values().removeIf(count -> count == 0);
+            accessesSinceAging = 0;
+        }
+        return frequency;
+    }
+
+    // Called with the lock held
+    private boolean admit(String key, ByteBuffer contents, int frequency) {
+        long needed = totalBytes + contents.capacity() - maxBytes;
+        List<String> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, ByteBuffer>> eldest = entries.entrySet().iterator();
+        while (needed > 0 && eldest.hasNext()) {
+            Map.Entry<String, ByteBuffer> victim = eldest.next();
+            if (frequencies.getOrDefault(victim.getKey(), 0) >= frequency) {
+                return false;
+            }
+            victims.add(victim.getKey());
+            needed -= victim.getValue().capacity();
+        }
+        for (String victim : victims) {
+            totalBytes -= entries.remove(victim).capacity();
+        }
+        entries.put(key, contents);
+        totalBytes += contents.capacity();
+        return true;
+    }
+
+    private long[] snapshot() {
+        synchronized (entries) {
+            return new long[] { entries.size(), totalBytes };
+        }
+    }
+
+    // Read straight into a direct buffer; null if the file changed size while being read
+    private static ByteBuffer read(Resource file, long contentLength) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) contentLength);
+        try (FileChannel channel = FileChannel.open(file.getFile().toPath(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null;
+                }
+            }
+            if (channel.size() != contentLength) {
+                return null;
+            }
+        }
+        return buffer.flip().asReadOnlyBuffer();
+    }
+
+    /** A cached file; reports the original file's location, size and modification time. */
+    private static final class CachedFileResource extends AbstractResource {
+
+        private final Resource original;
+        private final ByteBuffer contents;
+        private final long lastModified;
+
+        CachedFileResource(Resource original, ByteBuffer contents, long lastModified) {
+            this.original = original;
+            this.contents = contents;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteBufferInputStream(contents.duplicate());
+        }
+
+        @Override
+        public long contentLength() {
+            return contents.capacity();
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return original.getURI();
+        }
+
+        @Override
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached " + original.getDescription();
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.edusync.service;
+
+import com.edusync.storage.AtRestCompression;
+import com.edusync.storage.ObjectStorage;
+import com.edusync.storage.StoredObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds stored files that no row references any more: uploads whose resource was never saved,
+ * and files a delete failed to remove.
+ *
+ * Each run checks one page of {@code page-size} objects under every prefix, so storage sees a
+ * bounded number of listings and deletes per {@code interval}. The last key checked and the pass
+ * totals are kept in {@code storage_scan_cursors}, and a restart resumes the pass where it stopped.
+ * Every node runs the job; a page is claimed by locking the prefix's cursor row for the whole
+ * list, check and save, and a node that finds the row locked skips its turn. Files younger
+ * than {@code min-age} are skipped, since an upload is stored before its row is written.
+ * Orphans are reported (see {@link #report()}); they are only deleted with {@code reclaim=true}.
+ */
+@Service
+public class OrphanFileReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanFileReconciler.class);
+
+    private static final String RESOURCES = "resources/";
+    private static final String CERTIFICATES = "certificates/";
+    private static final int MAX_REPORTED_ORPHANS = 1000;
+
+    private static final String CREATE_CURSOR_SQL =
+            "INSERT IGNORE INTO storage_scan_cursors (prefix, last_key, pass_started_at) VALUES (?, NULL, ?)";
+
+    // Another node holding the row is scanning this prefix right now
+    private static final String CLAIM_CURSOR_SQL = "SELECT last_key, pass_started_at FROM storage_scan_cursors "
+            + "WHERE prefix = ? FOR UPDATE SKIP LOCKED";
+
+    private static final String ADVANCE_CURSOR_SQL = "UPDATE storage_scan_cursors SET last_key = ?, "
+            + "pass_scanned = pass_scanned + ?, pass_orphans = pass_orphans + ?, "
+            + "pass_orphan_bytes = pass_orphan_bytes + ?, pass_reclaimed = pass_reclaimed + ? WHERE prefix = ?";
+
+    // Publishes the pass as the last completed one and starts the next from the beginning
+    private static final String COMPLETE_PASS_SQL = "UPDATE storage_scan_cursors SET "
+            + "last_pass_started_at = pass_started_at, last_pass_completed_at = ?, "
+            + "last_pass_scanned = pass_scanned + ?, last_pass_orphans = pass_orphans + ?, "
+            + "last_pass_orphan_bytes = pass_orphan_bytes + ?, last_pass_reclaimed = pass_reclaimed + ?, "
+            + "last_key = NULL, pass_started_at = ?, pass_scanned = 0, pass_orphans = 0, "
+            + "pass_orphan_bytes = 0, pass_reclaimed = 0 WHERE prefix = ?";
+
+    @Autowired
+    private ObjectStorage storage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PreviewService previewService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${storage.orphans.scan:true}")
+    private boolean enabled;
+
+    @Value("${storage.orphans.page-size:200}")
+    private int pageSize;
+
+    @Value("${storage.orphans.min-age:24h}")
+    private Duration minAge;
+
+    @Value("${storage.orphans.reclaim:false}")
+    private boolean reclaim;
+
+    // Orphans this node found in the pass in progress and the last completed pass, per prefix
+    private final Map<String, OrphanSample> current = new ConcurrentHashMap<>();
+    private final Map<String, OrphanSample> completed = new ConcurrentHashMap<>();
+
+    @Scheduled(initialDelayString = "${storage.orphans.interval:30000}",
+               fixedDelayString = "${storage.orphans.interval:30000}")
+    public void scanPage() {
+        if (!enabled) {
+            return;
+        }
+        for (String prefix : List.of(RESOURCES, CERTIFICATES)) {
+            try {
+                scanPage(prefix);
+            } catch (Exception ex) {
+                log.warn("Orphan scan of {} failed, retrying next run: {}", prefix, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Totals of the pass in progress and the last completed pass, per prefix, across all nodes.
+     * {@code files} lists the orphans this node found (other nodes scanned other pages).
+     */
+    public Map<String, Object> report() {
+        Map<String, Object> currentPasses = new LinkedHashMap<>();
+        Map<String, Object> completedPasses = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT * FROM storage_scan_cursors ORDER BY prefix", rs -> {
+            String prefix = rs.getString("prefix");
+            currentPasses.put(prefix, passReport(rs.getTimestamp("pass_started_at").toInstant(), null,
+                    rs.getLong("pass_scanned"), rs.getLong("pass_orphans"), rs.getLong("pass_orphan_bytes"),
+                    rs.getLong("pass_reclaimed"), current.get(prefix)));
+            if (rs.getTimestamp("last_pass_completed_at") != null) {
+                completedPasses.put(prefix, passReport(rs.getTimestamp("last_pass_started_at").toInstant(),
+                        rs.getTimestamp("last_pass_completed_at").toInstant(), rs.getLong("last_pass_scanned"),
+                        rs.getLong("last_pass_orphans"), rs.getLong("last_pass_orphan_bytes"),
+                        rs.getLong("last_pass_reclaimed"), completed.get(prefix)));
+            }
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("reclaim", reclaim);
+        report.put("minAge", minAge.toString());
+        report.put("current", currentPasses);
+        report.put("lastCompleted", completedPasses);
+        return report;
+    }
+
+    private void scanPage(String prefix) {
+        jdbcTemplate.update(CREATE_CURSOR_SQL, prefix, Timestamp.from(Instant.now()));
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Cursor> claimed = jdbcTemplate.query(CLAIM_CURSOR_SQL,
+                    (rs, i) -> new Cursor(rs.getString("last_key"), rs.getTimestamp("pass_started_at").toInstant()),
+                    prefix);
+            if (claimed.isEmpty()) {
+                log.debug("Orphan scan of {} is running on another node, skipping", prefix);
+                return;
+            }
+            try {
+                scanPage(prefix, claimed.get(0));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    // Called with the cursor row locked; the transaction commits the new cursor and totals
+    private void scanPage(String prefix, Cursor cursor) throws IOException {
+        OrphanSample sample = current.compute(prefix, (p, existing) ->
+                existing != null && existing.passStartedAt().equals(cursor.passStartedAt())
+                        ? existing : new OrphanSample(cursor.passStartedAt(), new ArrayList<>()));
+        PageTotals totals = new PageTotals();
+
+        List<StoredObject> page = storage.list(prefix, cursor.lastKey(), pageSize);
+        Set<String> referenced = page.isEmpty() ? Set.of() : referencedKeys(prefix, page);
+        long cutoff = Instant.now().minus(minAge).toEpochMilli();
+        for (StoredObject object : page) {
+            totals.scanned++;
+            if (referenced.contains(logicalKey(prefix, object.key())) || object.lastModified() > cutoff) {
+                continue;
+            }
+            orphanFound(prefix, totals, sample, object);
+        }
+
+        if (page.size() < pageSize) {
+            // End of the prefix: publish the pass and start over from the beginning
+            jdbcTemplate.update(COMPLETE_PASS_SQL, Timestamp.from(Instant.now()), totals.scanned, totals.orphans,
+                    totals.orphanBytes, totals.reclaimed, Timestamp.from(Instant.now()), prefix);
+            completed.put(prefix, sample);
+            current.remove(prefix);
+            log.info("Orphan scan of {} complete", prefix);
+        } else {
+            jdbcTemplate.update(ADVANCE_CURSOR_SQL, page.get(page.size() - 1).key(), totals.scanned,
+                    totals.orphans, totals.orphanBytes, totals.reclaimed, prefix);
+        }
+    }
+
+    private void orphanFound(String prefix, PageTotals totals, OrphanSample sample, StoredObject object) {
+        totals.orphans++;
+        totals.orphanBytes += object.size();
+        synchronized (sample.files()) {
+            if (sample.files().size() < MAX_REPORTED_ORPHANS) {
+                sample.files().add(object);
+            }
+        }
+        Counter.builder("edusync.storage.orphans.found")
+                .description("Stored files no row references")
+                .tag("prefix", prefix)
+                .register(meterRegistry)
+                .increment();
+        if (!reclaim) {
+            log.debug("Orphaned file {} ({} bytes)", object.key(), object.size());
+            return;
+        }
+        try {
+            storage.delete(object.key());
+            previewService.deletePreview(object.key());
+            totals.reclaimed++;
+            Counter.builder("edusync.storage.orphans.reclaimed")
+                    .baseUnit("bytes")
+                    .tag("prefix", prefix)
+                    .register(meterRegistry)
+                    .increment(object.size());
+            log.info("Reclaimed orphaned file {} ({} bytes)", object.key(), object.size());
+        } catch (IOException ex) {
+            log.warn("Could not reclaim orphaned file {}: {}", object.key(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Keys in {@code page} that a row still points at, in one or two batched queries. Runs in the
+     * read-write claim transaction, so it reads the primary, not a lagging replica.
+     */
+    private Set<String> referencedKeys(String prefix, List<StoredObject> page) {
+        List<String> keys = page.stream().map(object -> logicalKey(prefix, object.key())).toList();
+        List<String> names = keys.stream().map(ObjectStorage::fileName).toList();
+        String placeholders = String.join(",", Collections.nCopies(names.size(), "?"));
+        Set<String> referenced = new HashSet<>();
+
+        if (prefix.equals(RESOURCES)) {
+            // Resource files and activity certificates share the resources/ prefix
+            Object[] args = names.toArray();
+            jdbcTemplate.queryForList("SELECT file_name FROM resources WHERE file_name IN (" + placeholders + ")",
+                    String.class, args).forEach(name -> referenced.add(FileStorageService.resourceKey(name)));
+            jdbcTemplate.queryForList("SELECT certificate_file FROM activities WHERE certificate_file IN (" + placeholders + ")",
+                    String.class, args).forEach(name -> referenced.add(FileStorageService.resourceKey(name)));
+        } else {
+            // Certificates hold their key, or the absolute path of older uploads
+            List<Object> args = new ArrayList<>(keys);
+            args.addAll(names);
+            jdbcTemplate.queryForList("SELECT file_path FROM certificates WHERE file_path IN (" + placeholders + ") "
+                            + "OR SUBSTRING_INDEX(REPLACE(file_path, '\\\\', '/'), '/', -1) IN (" + placeholders + ")",
+                    String.class, args.toArray()).forEach(path -> referenced.add(FileStorageService.certificateKey(path)));
+        }
+        return referenced;
+    }
+
+    // Resource files stored gzipped are referenced by their uncompressed name
+    private static String logicalKey(String prefix, String storedKey) {
+        return prefix.equals(RESOURCES) ? AtRestCompression.logicalKey(storedKey) : storedKey;
+    }
+
+    private static Map<String, Object> passReport(Instant startedAt, Instant completedAt, long scanned,
+                                                  long orphans, long orphanBytes, long reclaimed,
+                                                  OrphanSample sample) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("startedAt", startedAt);
+        data.put("completedAt", completedAt);
+        data.put("scanned", scanned);
+        data.put("orphans", orphans);
+        data.put("orphanBytes", orphanBytes);
+        data.put("reclaimed", reclaimed);
+        List<StoredObject> files = List.of();
+        if (sample != null && sample.passStartedAt().equals(startedAt)) {
+            synchronized (sample.files()) {
+                files = List.copyOf(sample.files());
+            }
+        }
+        data.put("files", files);
+        return data;
+    }
+
+    private record Cursor(String lastKey, Instant passStartedAt) {}
+
+    // The first MAX_REPORTED_ORPHANS orphans this node found in a pass
+    private record OrphanSample(Instant passStartedAt, List<StoredObject> files) {}
+
+    // Findings of one page, added to the pass totals in the cursor row
+    private static class PageTotals {
+        long scanned;
+        long orphans;
+        long orphanBytes;
+        long reclaimed;
+    }
+}
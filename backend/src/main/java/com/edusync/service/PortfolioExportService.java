@@ -0,0 +1,267 @@
+package com.edusync.service;
+
+import com.edusync.config.ExecutionMode;
+import com.edusync.entity.Activity;
+import com.edusync.entity.Certificate;
+import com.edusync.entity.User;
+import com.edusync.repository.ActivityRepository;
+import com.edusync.repository.CertificateRepository;
+import com.edusync.repository.UserRepository;
+import com.edusync.storage.ObjectStorage;
+import com.edusync.storage.StoredObject;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams approved activities and certificate files of many students as a single ZIP.
+ *
+ * Files are read ahead on a small pool while the ZIP is written on the request thread. At most
+ * {@code parallelReads} files are in flight and only files up to {@code prefetchMaxBytes} are
+ * buffered, so memory stays bounded regardless of how many students are exported.
+ */
+@Service
+public class PortfolioExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioExportService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ExecutionMode executionMode;
+
+    @Value("${portfolio.export.parallel-reads:4}")
+    private int parallelReads;
+
+    @Value("${portfolio.export.prefetch-max-bytes:8388608}")
+    private long prefetchMaxBytes;
+
+    private ExecutorService readExecutor;
+
+    @PostConstruct
+    void startReadExecutor() {
+        // Still a fixed pool with virtual threads: parallel-reads bounds the disk reads per export
+        readExecutor = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(Math.max(1, parallelReads),
+                        executionMode.threadFactory("portfolio-export")), "portfolio-export");
+    }
+
+    @PreDestroy
+    void stopReadExecutor() {
+        readExecutor.shutdownNow();
+    }
+
+    /**
+     * Write a ZIP with one folder per student to {@code out}. When {@code studentIds} is empty every
+     * student is exported. The stream is finished but not closed.
+     */
+    public void exportPortfolios(List<Long> studentIds, OutputStream out) throws IOException {
+        List<Long> ids = (studentIds == null || studentIds.isEmpty())
+                ? userRepository.findIdsByRole(User.UserRole.STUDENT)
+                : studentIds;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (Long id : ids) {
+            User student = userRepository.findById(id).orElse(null);
+            if (student == null || student.getRole() != User.UserRole.STUDENT) {
+                continue;
+            }
+            writeStudent(zip, student);
+            zip.flush();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeStudent(ZipOutputStream zip, User student) throws IOException {
+        String folder = student.getId() + "_" + safeName(student.getFirstName() + "_" + student.getLastName()) + "/";
+
+        List<Activity> activities = activityRepository.findByStudentIdAndStatusOrderByCreatedAtDesc(
+                student.getId(), Activity.Status.APPROVED);
+        List<Certificate> certificates = certificateRepository.findByUserId(student.getId());
+
+        writeEntry(zip, folder + "portfolio.json", objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(buildPortfolio(student, activities, certificates)));
+        writeEntry(zip, folder + "activities.csv", buildActivitiesCsv(activities).getBytes(StandardCharsets.UTF_8));
+
+        List<ExportFile> files = new ArrayList<>();
+        for (Activity activity : activities) {
+            if (activity.getCertificateFile() != null) {
+                files.add(new ExportFile(folder + "activities/" + activity.getId() + "_" + activity.getCertificateFile(),
+                        FileStorageService.resourceKey(activity.getCertificateFile())));
+            }
+        }
+        for (Certificate certificate : certificates) {
+            String key = FileStorageService.certificateKey(certificate.getFilePath());
+            files.add(new ExportFile(folder + "certificates/" + certificate.getId() + "_" + ObjectStorage.fileName(key), key));
+        }
+        copyFiles(zip, files);
+    }
+
+    private Map<String, Object> buildPortfolio(User student, List<Activity> activities, List<Certificate> certificates) {
+        int totalCredits = activities.stream()
+                .map(a -> a.getCredits() == null ? 0 : a.getCredits())
+                .reduce(0, Integer::sum);
+
+        Map<String, Object> studentData = new LinkedHashMap<>();
+        studentData.put("id", student.getId());
+        studentData.put("firstName", student.getFirstName());
+        studentData.put("lastName", student.getLastName());
+        studentData.put("email", student.getEmail());
+
+        Map<String, Object> portfolio = new LinkedHashMap<>();
+        portfolio.put("student", studentData);
+        portfolio.put("approvedActivities", activities.size());
+        portfolio.put("totalCredits", totalCredits);
+        portfolio.put("activities", activities);
+        portfolio.put("certificates", certificates);
+        return portfolio;
+    }
+
+    private String buildActivitiesCsv(List<Activity> activities) {
+        StringBuilder csv = new StringBuilder("id,category,title,startDate,endDate,credits,approvedAt,certificateFile\n");
+        for (Activity a : activities) {
+            csv.append(a.getId()).append(',')
+                    .append(csvValue(a.getCategory())).append(',')
+                    .append(csvValue(a.getTitle())).append(',')
+                    .append(csvValue(a.getStartDate())).append(',')
+                    .append(csvValue(a.getEndDate())).append(',')
+                    .append(csvValue(a.getCredits())).append(',')
+                    .append(csvValue(a.getApprovedAt())).append(',')
+                    .append(csvValue(a.getCertificateFile())).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Copy files into the ZIP in order while up to {@code parallelReads} of the following files are
+     * already being read from storage.
+     */
+    private void copyFiles(ZipOutputStream zip, List<ExportFile> files) throws IOException {
+        Deque<PendingFile> window = new ArrayDeque<>();
+        try {
+            for (ExportFile file : files) {
+                window.addLast(prefetch(file));
+                if (window.size() >= parallelReads) {
+                    writePending(zip, window.removeFirst());
+                }
+            }
+            while (!window.isEmpty()) {
+                writePending(zip, window.removeFirst());
+            }
+        } finally {
+            window.forEach(pending -> {
+                if (pending.contents() != null) pending.contents().cancel(true);
+            });
+        }
+    }
+
+    private PendingFile prefetch(ExportFile file) {
+        try {
+            Optional<StoredObject> object = fileStorageService.stat(file.key());
+            if (object.isPresent() && object.get().size() <= prefetchMaxBytes) {
+                return new PendingFile(file, readExecutor.submit(() -> {
+                    try (InputStream in = fileStorageService.openStream(file.key())) {
+                        return in.readAllBytes();
+                    }
+                }));
+            }
+        } catch (IOException ex) {
+            // Fall through and let the writer report the file as missing
+        }
+        return new PendingFile(file, null);
+    }
+
+    private void writePending(ZipOutputStream zip, PendingFile pending) throws IOException {
+        ExportFile file = pending.file();
+        if (pending.contents() != null) {
+            byte[] bytes;
+            try {
+                bytes = pending.contents().get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Portfolio export interrupted", ex);
+            } catch (ExecutionException ex) {
+                log.warn("Skipping unreadable export file {}", file.key(), ex.getCause());
+                return;
+            }
+            writeEntry(zip, file.entryName(), bytes);
+            return;
+        }
+
+        if (fileStorageService.stat(file.key()).isEmpty()) {
+            log.warn("Skipping missing export file {}", file.key());
+            return;
+        }
+        // Large files are streamed straight from storage instead of being buffered
+        try (InputStream in = fileStorageService.openStream(file.key())) {
+            zip.putNextEntry(new ZipEntry(file.entryName()));
+            in.transferTo(zip);
+            zip.closeEntry();
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, byte[] bytes) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+    private String safeName(String value) {
+        return value.replaceAll("[^a-zA-Z0-9.-]", "_");
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private record ExportFile(String entryName, String key) {}
+
+    private record PendingFile(ExportFile file, Future<byte[]> contents) {}
+}
@@ -0,0 +1,230 @@
+package com.edusync.service;
+
+import com.edusync.config.ExecutionMode;
+import com.edusync.config.FileStorageConfig;
+import com.edusync.storage.LocalFile;
+import com.edusync.storage.ObjectStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders small JPEG thumbnails for uploaded PDFs and images.
+ *
+ * Thumbnails are generated in the background right after an upload and cached on local disk under
+ * {@code <upload-dir>/previews}, named after the stored source file. Files uploaded before this
+ * existed (or previews missing on this node) are rendered on first request. Sources are addressed
+ * by storage key and fetched through FileStorageService.
+ */
+@Service
+public class PreviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(PreviewService.class);
+
+    private final Path previewLocation;
+
+    @Value("${preview.max-width:320}")
+    private int maxWidth;
+
+    @Value("${preview.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    private final ExecutorService previewExecutor;
+
+    private final FileStorageService fileStorageService;
+
+    @Autowired
+    public PreviewService(FileStorageConfig fileStorageConfig, MeterRegistry meterRegistry,
+                          ExecutionMode executionMode, FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+        // A plain ThreadPoolExecutor so the executor metrics can report the queue depth. One worker
+        // either way: rendering is CPU and memory heavy, virtual threads only help its file reads.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), executionMode.threadFactory("preview-renderer"));
+        this.previewExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "preview-renderer");
+        this.previewLocation = Paths.get(fileStorageConfig.getUploadDir(), "previews")
+                .toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.previewLocation);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the preview directory " + this.previewLocation, ex);
+        }
+    }
+
+    @PreDestroy
+    void stopPreviewExecutor() {
+        previewExecutor.shutdownNow();
+    }
+
+    /**
+     * Queue thumbnail generation for a freshly stored file. Failures only mean the preview is
+     * rendered later on demand, so they never affect the upload.
+     */
+    public void generatePreviewAsync(String sourceKey) {
+        if (!isPreviewable(sourceKey)) {
+            return;
+        }
+        previewExecutor.submit(() -> {
+            try {
+                generatePreview(sourceKey);
+            } catch (Exception ex) {
+                log.warn("Could not generate preview for {}", sourceKey, ex);
+            }
+        });
+    }
+
+    /**
+     * Return the cached thumbnail for the stored file {@code sourceKey}, rendering it first if
+     * needed. Empty when the file type has no preview or the file is missing.
+     */
+    public Optional<Path> getPreview(String sourceKey) throws IOException {
+        if (!isPreviewable(sourceKey)) {
+            return Optional.empty();
+        }
+        Path preview = previewPath(sourceKey);
+        if (Files.exists(preview)) {
+            return Optional.of(preview);
+        }
+        if (fileStorageService.stat(sourceKey).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(generatePreview(sourceKey));
+    }
+
+    public void deletePreview(String sourceKey) {
+        try {
+            Files.deleteIfExists(previewPath(sourceKey));
+        } catch (IOException ex) {
+            log.warn("Could not delete preview for {}: {}", sourceKey, ex.getMessage());
+        }
+    }
+
+    public boolean isPreviewable(String sourceKey) {
+        String name = sourceKey.toLowerCase();
+        return name.endsWith(".pdf") || name.endsWith(".jpg") || name.endsWith(".jpeg")
+                || name.endsWith(".png") || name.endsWith(".gif") || name.endsWith(".bmp");
+    }
+
+    private Path previewPath(String sourceKey) {
+        return previewLocation.resolve(ObjectStorage.fileName(sourceKey) + ".jpg");
+    }
+
+    private Path generatePreview(String sourceKey) throws IOException {
+        BufferedImage image;
+        try (LocalFile source = fileStorageService.localCopy(sourceKey)) {
+            image = sourceKey.toLowerCase().endsWith(".pdf")
+                    ? renderFirstPage(source.path())
+                    : readImage(source.path());
+        }
+        if (image == null) {
+            throw new IOException("Unsupported image format");
+        }
+
+        // Write to a temp file first so readers never see a half-written thumbnail
+        Path target = previewPath(sourceKey);
+        Path temp = Files.createTempFile(previewLocation, "preview-", ".tmp");
+        try {
+            writeJpeg(scale(image), temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+
+    private BufferedImage renderFirstPage(Path source) throws IOException {
+        try (PDDocument document = Loader.loadPDF(source.toFile())) {
+            if (document.getNumberOfPages() == 0) {
+                return null;
+            }
+            float pageWidthPoints = document.getPage(0).getMediaBox().getWidth();
+            // Render close to the thumbnail width instead of at full resolution
+            float dpi = Math.max(24f, Math.min(150f, 72f * maxWidth / Math.max(1f, pageWidthPoints)));
+            return new PDFRenderer(document).renderImageWithDPI(0, dpi, ImageType.RGB);
+        }
+    }
+
+    private BufferedImage readImage(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Subsample large images while decoding so a photo never lands in memory at full size
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getWidth(0) / (maxWidth * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        int width = Math.min(maxWidth, image.getWidth());
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, java.awt.Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.edusync.service;
+
+/**
+ * An upload would take a faculty member past their storage quota.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    private final long usedBytes;
+    private final long quotaBytes;
+
+    public QuotaExceededException(long usedBytes, long quotaBytes, long requestedBytes) {
+        super("Storage quota exceeded: " + usedBytes + " of " + quotaBytes + " bytes used, upload needs "
+                + requestedBytes + " more");
+        this.usedBytes = usedBytes;
+        this.quotaBytes = quotaBytes;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getQuotaBytes() {
+        return quotaBytes;
+    }
+}
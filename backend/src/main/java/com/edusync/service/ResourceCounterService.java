@@ -0,0 +1,221 @@
+package com.edusync.service;
+
+import com.edusync.dto.PopularResource;
+import com.edusync.metrics.CacheMeter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * View and download counts per resource, with write-behind.
+ *
+ * The read paths only increment striped in-memory counters ({@link LongAdder}), so counting never
+ * touches the database. Every {@code counters.flush-interval} ms the deltas are added to
+ * {@code resource_counters} in one multi-row upsert per {@code MAX_ROWS_PER_STATEMENT} resources,
+ * and once more on shutdown; a crash loses at most one interval of counts. Counts of resources
+ * deleted in the meantime are dropped, and deleting a resource removes its row (foreign key with
+ * ON DELETE CASCADE). Rankings per branch/subject are cached for {@code counters.top-cache-ttl}.
+ */
+@Service
+public class ResourceCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceCounterService.class);
+
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final int MAX_CACHED_RANKINGS = 1_000;
+    public static final int MAX_TOP_LIMIT = 50;
+
+    public enum Metric {
+        VIEWS("views"), DOWNLOADS("downloads");
+
+        private final String column;
+
+        Metric(String column) {
+            this.column = column;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaxonomyService taxonomyService;
+
+    @Value("${counters.top-cache-ttl:60s}")
+    private Duration topCacheTtl;
+
+    // Deltas not yet written; at most one entry per existing resource (see resourceDeleted)
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedRanking> rankings = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedRanking> eldest) {
+                    return size() > MAX_CACHED_RANKINGS;
+                }
+            });
+
+    private CacheMeter rankingCacheMeter;
+
+    private record Pending(LongAdder views, LongAdder downloads) {
+        Pending() {
+            this(new LongAdder(), new LongAdder());
+        }
+    }
+
+    private record CachedRanking(long expiresAt, List<PopularResource> resources) {}
+
+    @PostConstruct
+    void registerMetrics() {
+        rankingCacheMeter = new CacheMeter(meterRegistry, "popular-resources");
+        Gauge.builder("cache.size", rankings, Map::size)
+                .tag("cache", "popular-resources")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long resourceId) {
+        pending.computeIfAbsent(resourceId, id -> new Pending()).views().increment();
+    }
+
+    public void recordDownload(Long resourceId) {
+        pending.computeIfAbsent(resourceId, id -> new Pending()).downloads().increment();
+    }
+
+    /** Forget the pending counts of a deleted resource; its row goes with the resource row. */
+    public void resourceDeleted(Long resourceId) {
+        pending.remove(resourceId);
+    }
+
+    @Scheduled(initialDelayString = "${counters.flush-interval:5000}",
+               fixedDelayString = "${counters.flush-interval:5000}")
+    public void flush() {
+        // Take the deltas; increments racing with this are simply picked up by the next flush
+        List<long[]> rows = new ArrayList<>();
+        pending.forEach((id, counts) -> {
+            long views = counts.views().sumThenReset();
+            long downloads = counts.downloads().sumThenReset();
+            if (views != 0 || downloads != 0) {
+                rows.add(new long[] { id, views, downloads });
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+        // Ascending ids so concurrent flushes from several instances lock rows in the same order
+        rows.sort((a, b) -> Long.compare(a[0], b[0]));
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<long[]> chunk = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+            try {
+                upsert(chunk);
+            } catch (RuntimeException ex) {
+                // Keep the counts for the next attempt rather than dropping them
+                log.warn("Could not flush {} resource counters, retrying next run: {}", chunk.size(), ex.getMessage());
+                for (long[] row : chunk) {
+                    Pending counts = pending.computeIfAbsent(row[0], id -> new Pending());
+                    counts.views().add(row[1]);
+                    counts.downloads().add(row[2]);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * The {@code limit} resources of a branch (and subject, if given) with the highest count.
+     * Counts lag by up to one flush interval plus the cache TTL.
+     */
+    @Transactional(readOnly = true)
+    public List<PopularResource> top(String branch, String subject, Metric metric, int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_TOP_LIMIT));
+        boolean bySubject = subject != null && !subject.isBlank();
+        String key = metric + ":" + boundedLimit + ":" + CollectionVersionService.resourceListing(branch, subject);
+
+        CachedRanking cached = rankings.get(key);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            rankingCacheMeter.hit();
+            return cached.resources();
+        }
+        rankingCacheMeter.miss();
+
+        // A subject id implies its branch; names unknown to the taxonomy rank nothing
+        List<PopularResource> resources;
+        if (TaxonomyService.isAll(branch)) {
+            resources = rank(metric, null, null, boundedLimit);
+        } else if (bySubject) {
+            resources = taxonomyService.findSubjectId(branch, subject)
+                    .map(id -> rank(metric, "subject_id", id, boundedLimit))
+                    .orElse(List.of());
+        } else {
+            resources = taxonomyService.findBranchId(branch)
+                    .map(id -> rank(metric, "branch_id", id, boundedLimit))
+                    .orElse(List.of());
+        }
+        rankings.put(key, new CachedRanking(System.currentTimeMillis() + topCacheTtl.toMillis(), resources));
+        return resources;
+    }
+
+    private List<PopularResource> rank(Metric metric, String filterColumn, Integer filterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT r.id, r.title, r.file_type, r.branch, r.subject, c.")
+                .append(metric.column).append(" AS count ")
+                .append("FROM resource_counters c JOIN resources r ON r.id = c.resource_id WHERE c.")
+                .append(metric.column).append(" > 0");
+        if (filterColumn != null) {
+            sql.append(" AND r.").append(filterColumn).append(" = ?");
+            args.add(filterId);
+        }
+        sql.append(" ORDER BY c.").append(metric.column).append(" DESC, r.id LIMIT ?");
+        args.add(limit);
+        return List.copyOf(jdbcTemplate.query(sql.toString(),
+                (rs, i) -> new PopularResource(rs.getLong("id"), rs.getString("title"), rs.getString("file_type"),
+                        rs.getString("branch"), rs.getString("subject"), rs.getLong("count")),
+                args.toArray()));
+    }
+
+    // The join with resources drops deltas of resources deleted since they were counted, which
+    // would otherwise fail the whole statement on the foreign key
+    private void upsert(List<long[]> rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO resource_counters (resource_id, views, downloads) "
+                + "SELECT d.resource_id, d.views, d.downloads FROM (");
+        Object[] args = new Object[rows.size() * 3];
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "SELECT ? AS resource_id, ? AS views, ? AS downloads" : " UNION ALL SELECT ?, ?, ?");
+            args[i * 3] = rows.get(i)[0];
+            args[i * 3 + 1] = rows.get(i)[1];
+            args[i * 3 + 2] = rows.get(i)[2];
+        }
+        sql.append(") d JOIN resources r ON r.id = d.resource_id ON DUPLICATE KEY UPDATE "
+                + "views = resource_counters.views + d.views, downloads = resource_counters.downloads + d.downloads");
+        jdbcTemplate.update(sql.toString(), args);
+        Counter.builder("edusync.counters.flushed")
+                .description("Resource counter rows written by write-behind flushes")
+                .register(meterRegistry)
+                .increment(rows.size());
+    }
+}
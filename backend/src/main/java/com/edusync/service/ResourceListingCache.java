@@ -0,0 +1,188 @@
+package com.edusync.service;
+
+import com.edusync.metrics.CacheMeter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read-through cache of fully serialized branch/subject listings.
+ *
+ * Entries hold the JSON written by ResourceListingService (and a gzipped copy when that is
+ * smaller), keyed by collection key and version, so a hit is served without JPA or Jackson and a
+ * version bump on any node makes old entries unreachable. ResourceService also evicts a
+ * resource's listings on save/delete to free their memory right away. The cache is bounded by
+ * total bytes and evicts least recently used entries first; listings larger than
+ * {@code max-entry-bytes} are rendered but not kept.
+ */
+@Service
+public class ResourceListingCache {
+
+    /** Serialized listing; {@code gzipped} is null when compression would not help. */
+    public record CachedListing(long version, byte[] json, byte[] gzipped) {
+        long sizeInBytes() {
+            return json.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+
+    private record Key(String collectionKey, long version) {
+    }
+
+    private static final int MIN_GZIP_BYTES = 1024;
+
+    @Value("${resources.listing-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${resources.listing-cache.max-entry-bytes:4194304}")
+    private long maxEntryBytes;
+
+    @Value("${resources.listing-cache.gzip:true}")
+    private boolean gzip;
+
+    @Autowired
+    private ResourceListingService resourceListingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by itself
+    private final LinkedHashMap<Key, CachedListing> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    // Renders in progress, so a burst of misses for the same page renders it once
+    private final Map<Key, CompletableFuture<CachedListing>> rendering = new ConcurrentHashMap<>();
+
+    private CacheMeter cacheMeter;
+
+    @PostConstruct
+    void registerMetrics() {
+        cacheMeter = new CacheMeter(meterRegistry, "resource-listing-bytes");
+        Gauge.builder("cache.size", entries, map -> {
+                    synchronized (map) {
+                        return map.size();
+                    }
+                })
+                .tag("cache", "resource-listing-bytes")
+                .register(meterRegistry);
+        Gauge.builder("edusync.cache.bytes", this, cache -> cache.currentBytes())
+                .tag("cache", "resource-listing-bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The listing for {@code branch}/{@code subject} at {@code version}, where {@code collectionKey}
+     * and {@code version} come from CollectionVersionService.
+     */
+    public CachedListing get(String branch, String subject, String collectionKey, long version) throws IOException {
+        Key key = new Key(collectionKey, version);
+        synchronized (entries) {
+            CachedListing cached = entries.get(key);
+            if (cached != null) {
+                cacheMeter.hit();
+                return cached;
+            }
+        }
+        cacheMeter.miss();
+
+        CompletableFuture<CachedListing> render = new CompletableFuture<>();
+        CompletableFuture<CachedListing> inProgress = rendering.putIfAbsent(key, render);
+        if (inProgress != null) {
+            return await(inProgress);
+        }
+        try {
+            CachedListing listing = render(branch, subject, version);
+            if (listing.sizeInBytes() <= maxEntryBytes) {
+                put(key, listing);
+            }
+            render.complete(listing);
+            return listing;
+        } catch (IOException | RuntimeException ex) {
+            render.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            rendering.remove(key);
+        }
+    }
+
+    /** Drop every cached version of these collections. */
+    public void evict(Collection<String> collectionKeys) {
+        synchronized (entries) {
+            Iterator<Map.Entry<Key, CachedListing>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, CachedListing> entry = iterator.next();
+                if (collectionKeys.contains(entry.getKey().collectionKey())) {
+                    totalBytes -= entry.getValue().sizeInBytes();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private long currentBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    private void put(Key key, CachedListing listing) {
+        synchronized (entries) {
+            CachedListing previous = entries.put(key, listing);
+            if (previous != null) {
+                totalBytes -= previous.sizeInBytes();
+            }
+            totalBytes += listing.sizeInBytes();
+            Iterator<CachedListing> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().sizeInBytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private CachedListing render(String branch, String subject, long version) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(8192);
+        resourceListingService.writeResources(branch, subject, json);
+        byte[] jsonBytes = json.toByteArray();
+
+        byte[] gzipped = null;
+        if (gzip && jsonBytes.length >= MIN_GZIP_BYTES) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(jsonBytes.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(jsonBytes);
+            }
+            if (compressed.size() < jsonBytes.length) {
+                gzipped = compressed.toByteArray();
+            }
+        }
+        return new CachedListing(version, jsonBytes, gzipped);
+    }
+
+    private static CachedListing await(CompletableFuture<CachedListing> render) throws IOException {
+        try {
+            return render.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.edusync.service;
+
+import com.edusync.dto.ResourceSummary;
+import com.edusync.repository.ResourceRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes resource listings as JSON straight from the database cursor.
+ *
+ * Rows are read as {@link ResourceSummary} projections and serialized one at a time, so memory
+ * use does not grow with the size of the listing. The output has the usual ApiResponse shape:
+ * {@code {"success":true,"message":...,"data":{"resources":[...],"count":n}}}.
+ */
+@Service
+public class ResourceListingService {
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaxonomyService taxonomyService;
+
+    private ObjectWriter summaryWriter;
+
+    @PostConstruct
+    void initWriter() {
+        // The generator is flushed by the servlet buffer, not after every row
+        summaryWriter = objectMapper.writerFor(ResourceSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Resources of one branch (optionally one subject), or all resources when {@code branch} is
+     * blank or "All"; newest first. Names unknown to the taxonomy give an empty listing.
+     */
+    @Transactional(readOnly = true)
+    public void writeResources(String branch, String subject, OutputStream out) throws IOException {
+        if (TaxonomyService.isAll(branch)) {
+            write(resourceRepository.streamAllSummaries(), out);
+        } else if (subject != null && !subject.isBlank()) {
+            write(taxonomyService.findSubjectId(branch, subject)
+                    .map(resourceRepository::streamSummariesBySubjectId)
+                    .orElseGet(Stream::empty), out);
+        } else {
+            write(taxonomyService.findBranchId(branch)
+                    .map(resourceRepository::streamSummariesByBranchId)
+                    .orElseGet(Stream::empty), out);
+        }
+    }
+
+    // Resources uploaded by one faculty member, newest first
+    @Transactional(readOnly = true)
+    public void writeResourcesByUploader(Long uploadedBy, OutputStream out) throws IOException {
+        write(resourceRepository.streamSummariesByUploader(uploadedBy), out);
+    }
+
+    private void write(Stream<ResourceSummary> rows, OutputStream out) throws IOException {
+        try (rows; JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeStringField("message", "Resources retrieved successfully");
+            json.writeObjectFieldStart("data");
+            json.writeArrayFieldStart("resources");
+            long count = 0;
+            Iterator<ResourceSummary> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                summaryWriter.writeValue(json, iterator.next());
+                count++;
+            }
+            json.writeEndArray();
+            json.writeNumberField("count", count);
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+}
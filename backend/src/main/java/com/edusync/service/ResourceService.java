@@ -4,6 +4,8 @@ import com.edusync.entity.Resource;
 import com.edusync.repository.ResourceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -19,10 +21,43 @@ public class ResourceService {
     @Autowired
     private FileStorageService fileStorageService;
 
-    // Upload resource with branch
+    @Autowired
+    private PreviewService previewService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private ResourceListingCache resourceListingCache;
+
+    @Autowired
+    private StorageQuotaService storageQuotaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SeenResourceService seenResourceService;
+
+    @Autowired
+    private TaxonomyService taxonomyService;
+
+    @Autowired
+    private ResourceCounterService resourceCounterService;
+
+    // Upload resource with branch. Throws QuotaExceededException before storing anything if the
+    // uploader's quota can't take the file.
     public Resource saveResource(MultipartFile file, String title, String description,
                                  String fileType, Long uploadedBy, String branch, String subject) throws IOException {
-        // Save file to disk
+        storageQuotaService.checkAvailable(uploadedBy, file.getSize());
+
+        // Resolve (or add) the branch/subject first; the resource gets their ids and canonical names
+        TaxonomyService.Branch taxonomyBranch = taxonomyService.ensureBranch(branch);
+        TaxonomyService.Subject taxonomySubject = subject != null && !subject.isBlank()
+                ? taxonomyService.ensureSubject(taxonomyBranch, subject)
+                : null;
+
+        // Save file to storage
         String storedFileName = fileStorageService.storeResourceFile(file);
 
         // Create Resource entity
@@ -33,40 +68,75 @@ public class ResourceService {
         resource.setFileSize(file.getSize());
         resource.setFileType(fileType);
         resource.setUploadedBy(uploadedBy);
-        resource.setBranch(branch);
-        if (subject != null && !subject.isBlank()) {
-            resource.setSubject(subject);
+        resource.setBranch(taxonomyBranch.name());
+        resource.setBranchId(taxonomyBranch.id());
+        if (taxonomySubject != null) {
+            resource.setSubject(taxonomySubject.name());
+            resource.setSubjectId(taxonomySubject.id());
         }
 
-        return resourceRepository.save(resource);
+        // The usage counter and the row commit together; a concurrent upload that used up the
+        // quota in the meantime fails the charge and rolls back the row
+        Resource saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                storageQuotaService.charge(uploadedBy, file.getSize());
+                return resourceRepository.save(resource);
+            });
+        } catch (RuntimeException ex) {
+            fileStorageService.deleteResourceFile(storedFileName);
+            throw ex;
+        }
+        listingsChanged(saved);
+        seenResourceService.resourceChanged(saved, true);
+        previewService.generatePreviewAsync(FileStorageService.resourceKey(storedFileName));
+        return saved;
     }
 
     // Get all resources
+    @Transactional(readOnly = true)
     public List<Resource> getAllResources() {
         return resourceRepository.findAll();
     }
 
-    // Filter by branch
-    public List<Resource> getResourcesByBranch(String branch) {
-        return resourceRepository.findByBranch(branch);
-    }
-
     // Get single resource
+    @Transactional(readOnly = true)
     public Optional<Resource> getResourceById(Long id) {
         return resourceRepository.findById(id);
     }
 
     // Delete resource
     public boolean deleteResource(Long id) {
-        Optional<Resource> resourceOpt = resourceRepository.findById(id);
-        if (resourceOpt.isPresent()) {
-            Resource resource = resourceOpt.get();
-            // Delete file from disk
-            fileStorageService.deleteResourceFile(resource.getFileName());
-            // Delete from DB
-            resourceRepository.delete(resource);
-            return true;
+        Resource resource = transactionTemplate.execute(status -> {
+            Optional<Resource> resourceOpt = resourceRepository.findById(id);
+            if (resourceOpt.isEmpty()) {
+                return null;
+            }
+            // Delete from DB and give the space back in one transaction (the counters row cascades)
+            resourceRepository.delete(resourceOpt.get());
+            storageQuotaService.release(resourceOpt.get().getUploadedBy(), resourceOpt.get().getFileSize());
+            return resourceOpt.get();
+        });
+        if (resource == null) {
+            return false;
         }
-        return false;
+        // Delete file and its preview once the row is gone
+        fileStorageService.deleteResourceFile(resource.getFileName());
+        previewService.deletePreview(FileStorageService.resourceKey(resource.getFileName()));
+        listingsChanged(resource);
+        seenResourceService.resourceChanged(resource, false);
+        resourceCounterService.resourceDeleted(resource.getId());
+        return true;
+    }
+
+    // Bump every listing a resource shows up in (see ResourceListingService) and drop their cached bytes
+    private void listingsChanged(Resource resource) {
+        List<String> keys = List.of(
+                CollectionVersionService.allResources(),
+                CollectionVersionService.resourcesByBranch(resource.getBranch()),
+                CollectionVersionService.resourcesByBranchAndSubject(resource.getBranch(), resource.getSubject()),
+                CollectionVersionService.resourcesByUploader(resource.getUploadedBy()));
+        collectionVersionService.bump(keys.toArray(String[]::new));
+        resourceListingCache.evict(keys);
     }
 }
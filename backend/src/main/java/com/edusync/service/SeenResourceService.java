@@ -0,0 +1,305 @@
+package com.edusync.service;
+
+import com.edusync.entity.Resource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which resources each student has opened, for "new since last visit" badges.
+ *
+ * Each student's seen-set is a roaring bitmap of resource ids, stored serialized in
+ * {@code student_seen_resources} (one row per student, not per view). Views update the bitmap in
+ * memory and mark it dirty; dirty bitmaps are written every {@code seen.flush-interval} ms and on
+ * shutdown, merged with the stored row under a row lock so marks saved by other instances are
+ * kept (and picked up by this one). Per-branch bitmaps of all resource ids are kept in memory, updated as resources are
+ * added or removed and rebuilt every {@code seen.branch-refresh-interval} ms to pick up changes
+ * from other instances, so an unseen count is a single and-not over two bitmaps.
+ *
+ * Bitmaps hold 32-bit ids; resource ids above {@code Integer.MAX_VALUE} are not tracked.
+ */
+@Service
+public class SeenResourceService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeenResourceService.class);
+
+    // Taxonomy ids start at 1
+    private static final int ALL_BRANCHES = 0;
+
+    private static final int MAX_STUDENTS_PER_FLUSH = 500;
+
+    public static final int MAX_UNSEEN_IDS = 100;
+
+    private static final byte[] EMPTY_BITMAP = serialize(new RoaringBitmap());
+
+    private static final String ENSURE_ROW_SQL =
+            "INSERT IGNORE INTO student_seen_resources (student_id, seen_bitmap) VALUES (?, ?)";
+
+    private static final String SAVE_SQL = "UPDATE student_seen_resources SET seen_bitmap = ? WHERE student_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaxonomyService taxonomyService;
+
+    @Value("${seen.idle-evict:30m}")
+    private Duration idleEvict;
+
+    // Seen-sets of recently active students; dropped once clean and idle for seen.idle-evict
+    private final Map<Long, SeenSet> seenSets = new ConcurrentHashMap<>();
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // Branch id -> ids of its resources (ALL_BRANCHES for all). Published bitmaps are never
+    // modified; changes replace them with an updated copy.
+    private volatile Map<Integer, RoaringBitmap> branchResources;
+
+    private static final class SeenSet {
+        final RoaringBitmap bitmap;
+        volatile long lastAccess = System.currentTimeMillis();
+        // Set under the lock when dropped from seenSets; writers then reload a fresh one
+        boolean evicted;
+
+        SeenSet(RoaringBitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+    }
+
+    /** Unseen resources of one branch for one student; {@code unseenIds} are the newest ones asked for. */
+    public record Unseen(String branch, int total, int unseenCount, int[] unseenIds) {}
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("cache.size", seenSets, Map::size)
+                .tag("cache", "student-seen-resources")
+                .register(meterRegistry);
+    }
+
+    public void markSeen(Long studentId, Long resourceId) {
+        if (resourceId > Integer.MAX_VALUE) {
+            return;
+        }
+        while (true) {
+            SeenSet seen = seenSet(studentId);
+            synchronized (seen) {
+                if (seen.evicted) {
+                    continue;
+                }
+                if (seen.bitmap.checkedAdd(resourceId.intValue())) {
+                    dirty.add(studentId);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * How many resources of {@code branch} (all resources if blank or "All") the student has not
+     * opened, plus the ids of up to {@code limit} of them, newest first (none when 0).
+     */
+    public Unseen unseen(Long studentId, String branch, int limit) {
+        int key = TaxonomyService.isAll(branch) ? ALL_BRANCHES : taxonomyService.findBranchId(branch).orElse(-1);
+        RoaringBitmap resources = branchResources().getOrDefault(key, new RoaringBitmap());
+        SeenSet seen = seenSet(studentId);
+        RoaringBitmap unseen;
+        synchronized (seen) {
+            unseen = RoaringBitmap.andNot(resources, seen.bitmap);
+        }
+        int[] ids = new int[Math.min(Math.max(0, Math.min(limit, MAX_UNSEEN_IDS)), unseen.getCardinality())];
+        IntIterator newestFirst = unseen.getReverseIntIterator();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = newestFirst.next();
+        }
+        return new Unseen(branch, resources.getCardinality(), unseen.getCardinality(), ids);
+    }
+
+    /** Keep the branch bitmaps in step with a saved or deleted resource. */
+    public void resourceChanged(Resource resource, boolean exists) {
+        if (branchResources == null || resource.getId() > Integer.MAX_VALUE) {
+            return;
+        }
+        synchronized (this) {
+            Map<Integer, RoaringBitmap> updated = new HashMap<>(branchResources);
+            List<Integer> keys = resource.getBranchId() == null
+                    ? List.of(ALL_BRANCHES)
+                    : List.of(ALL_BRANCHES, resource.getBranchId());
+            for (Integer key : keys) {
+                RoaringBitmap copy = updated.getOrDefault(key, new RoaringBitmap()).clone();
+                if (exists) {
+                    copy.add(resource.getId().intValue());
+                } else {
+                    copy.remove(resource.getId().intValue());
+                }
+                updated.put(key, copy);
+            }
+            branchResources = updated;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${seen.branch-refresh-interval:300000}",
+               fixedDelayString = "${seen.branch-refresh-interval:300000}")
+    public void refreshBranches() {
+        Map<Integer, RoaringBitmap> rebuilt = loadBranches();
+        synchronized (this) {
+            branchResources = rebuilt;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${seen.flush-interval:10000}",
+               fixedDelayString = "${seen.flush-interval:10000}")
+    public void flush() {
+        // Ascending ids so flushes from several instances lock rows in the same order
+        List<Long> students = new ArrayList<>(dirty);
+        students.sort(null);
+        for (int from = 0; from < students.size(); from += MAX_STUDENTS_PER_FLUSH) {
+            List<Long> chunk = students.subList(from, Math.min(students.size(), from + MAX_STUDENTS_PER_FLUSH));
+            // Marks made from here on dirty the student again and go out with the next flush
+            chunk.forEach(dirty::remove);
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeAndSave(chunk));
+            } catch (RuntimeException ex) {
+                log.warn("Could not save {} seen-resource sets, retrying next run: {}", chunk.size(), ex.getMessage());
+                dirty.addAll(chunk);
+                return;
+            }
+        }
+        evictIdle(System.currentTimeMillis() - idleEvict.toMillis());
+    }
+
+    // Other instances save the same students' rows. Lock them, fold what they saved into the
+    // in-memory bitmaps and write the union back, so no instance's marks are overwritten.
+    private void mergeAndSave(List<Long> studentIds) {
+        jdbcTemplate.batchUpdate(ENSURE_ROW_SQL, studentIds.stream()
+                .map(id -> new Object[] { id, EMPTY_BITMAP })
+                .toList());
+        Map<Long, byte[]> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT student_id, seen_bitmap FROM student_seen_resources WHERE student_id IN ("
+                        + String.join(", ", Collections.nCopies(studentIds.size(), "?")) + ") FOR UPDATE",
+                rs -> {
+                    stored.put(rs.getLong("student_id"), rs.getBytes("seen_bitmap"));
+                },
+                studentIds.toArray());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            SeenSet seen = seenSets.get(studentId);
+            if (seen == null) {
+                continue;
+            }
+            synchronized (seen) {
+                byte[] saved = stored.get(studentId);
+                if (saved != null) {
+                    seen.bitmap.or(deserialize(studentId, saved));
+                }
+                rows.add(new Object[] { serialize(seen.bitmap), studentId });
+            }
+        }
+        jdbcTemplate.batchUpdate(SAVE_SQL, rows);
+    }
+
+    private void evictIdle(long idleBefore) {
+        for (Map.Entry<Long, SeenSet> entry : seenSets.entrySet()) {
+            SeenSet seen = entry.getValue();
+            synchronized (seen) {
+                if (seen.lastAccess < idleBefore && !dirty.contains(entry.getKey())) {
+                    seen.evicted = true;
+                    seenSets.remove(entry.getKey(), seen);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private SeenSet seenSet(Long studentId) {
+        SeenSet seen = seenSets.computeIfAbsent(studentId, id -> new SeenSet(load(id)));
+        seen.lastAccess = System.currentTimeMillis();
+        return seen;
+    }
+
+    private RoaringBitmap load(Long studentId) {
+        List<byte[]> rows = jdbcTemplate.queryForList(
+                "SELECT seen_bitmap FROM student_seen_resources WHERE student_id = ?", byte[].class, studentId);
+        return rows.isEmpty() ? new RoaringBitmap() : deserialize(studentId, rows.get(0));
+    }
+
+    private static RoaringBitmap deserialize(Long studentId, byte[] bytes) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        try {
+            bitmap.deserialize(ByteBuffer.wrap(bytes));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Corrupt seen-resource set of student " + studentId, ex);
+        }
+        return bitmap;
+    }
+
+    // Callers hold the owning SeenSet's lock
+    private static byte[] serialize(RoaringBitmap bitmap) {
+        bitmap.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocate(bitmap.serializedSizeInBytes());
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    private Map<Integer, RoaringBitmap> branchResources() {
+        Map<Integer, RoaringBitmap> branches = branchResources;
+        if (branches == null) {
+            synchronized (this) {
+                if (branchResources == null) {
+                    branchResources = loadBranches();
+                }
+                branches = branchResources;
+            }
+        }
+        return branches;
+    }
+
+    private Map<Integer, RoaringBitmap> loadBranches() {
+        Map<Integer, RoaringBitmap> branches = new HashMap<>();
+        RoaringBitmap all = new RoaringBitmap();
+        jdbcTemplate.query("SELECT id, branch_id FROM resources WHERE id <= " + Integer.MAX_VALUE, rs -> {
+            int id = rs.getInt("id");
+            all.add(id);
+            int branchId = rs.getInt("branch_id");
+            if (!rs.wasNull()) {
+                branches.computeIfAbsent(branchId, key -> new RoaringBitmap()).add(id);
+            }
+        });
+        branches.put(ALL_BRANCHES, all);
+        branches.values().forEach(RoaringBitmap::runOptimize);
+        return branches;
+    }
+}
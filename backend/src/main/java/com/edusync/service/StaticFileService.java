@@ -0,0 +1,188 @@
+package com.edusync.service;
+
+import com.edusync.metrics.CacheMeter;
+import com.edusync.storage.CompressedObjectResource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds file responses for resources and certificates.
+ *
+ * Every response carries a strong ETag (SHA-256 of the content) and Last-Modified, so Spring MVC
+ * answers If-None-Match / If-Modified-Since with 304 and Range requests with 206 on its own. The
+ * body is handed over as a {@link Resource}; the message converter opens and closes the file while
+ * writing, so nothing is left open when the client goes away early.
+ *
+ * Files stored gzipped are sent as stored, with {@code Content-Encoding: gzip}, to clients that
+ * accept it, and decompressed on the fly for everyone else.
+ */
+@Service
+public class StaticFileService {
+
+    private static final int MAX_CACHED_ETAGS = 10_000;
+
+    @Value("${static-files.max-age-seconds:3600}")
+    private long maxAgeSeconds;
+
+    // Content hashes keyed by location, size and modification time, so a file is hashed once per version
+    private final Map<String, String> etagCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAX_CACHED_ETAGS;
+                }
+            });
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HotFileCache hotFileCache;
+
+    private CacheMeter etagCacheMeter;
+
+    @PostConstruct
+    void registerMetrics() {
+        etagCacheMeter = new CacheMeter(meterRegistry, "static-file-etags");
+        Gauge.builder("cache.size", etagCache, Map::size)
+                .tag("cache", "static-file-etags")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<Resource> inline(Resource file, String fileName) throws IOException {
+        return inline(file, fileName, null);
+    }
+
+    public ResponseEntity<Resource> inline(Resource file, String fileName, String acceptEncoding) throws IOException {
+        return serve(file, MediaType.parseMediaType(contentTypeFor(fileName)),
+                ContentDisposition.inline().filename(fileName).build(), acceptEncoding);
+    }
+
+    public ResponseEntity<Resource> attachment(Resource file, String fileName, MediaType contentType) throws IOException {
+        return attachment(file, fileName, contentType, null);
+    }
+
+    public ResponseEntity<Resource> attachment(Resource file, String fileName, MediaType contentType,
+                                               String acceptEncoding) throws IOException {
+        return serve(file, contentType, ContentDisposition.attachment().filename(fileName).build(), acceptEncoding);
+    }
+
+    public ResponseEntity<Resource> serve(Resource file, MediaType contentType, ContentDisposition disposition,
+                                          String acceptEncoding) throws IOException {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        Resource body = file;
+        if (file instanceof CompressedObjectResource compressed) {
+            // Each encoding has its own ETag and length; Range requests apply to the bytes sent
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+                body = compressed.encoded();
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+        long contentLength = body.contentLength();
+        long lastModified = body.lastModified();
+
+        return response
+                .contentType(contentType)
+                .eTag(etagFor(body, contentLength, lastModified))
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(hotFileCache.lookup(body, contentLength, lastModified));
+    }
+
+    /**
+     * Strong ETag derived from the file content. Hashes are cached per file version, so repeated
+     * requests (including revalidations answered with 304) don't re-read the file.
+     */
+    public String etagFor(Resource file, long contentLength, long lastModified) throws IOException {
+        String key = file.getURI() + ":" + contentLength + ":" + lastModified;
+        String etag = etagCache.get(key);
+        if (etag == null) {
+            etagCacheMeter.miss();
+            etag = "\"" + sha256(file) + "\"";
+            etagCache.put(key, etag);
+        } else {
+            etagCacheMeter.hit();
+        }
+        return etag;
+    }
+
+    private String sha256(Resource file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public String contentTypeFor(String fileName) {
+        if (fileName == null || !fileName.contains(".")) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        String extension = fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase();
+        switch (extension) {
+            case "pdf":
+                return "application/pdf";
+            case "jpg":
+            case "jpeg":
+                return "image/jpeg";
+            case "png":
+                return "image/png";
+            case "gif":
+                return "image/gif";
+            case "mp4":
+                return "video/mp4";
+            case "avi":
+                return "video/x-msvideo";
+            case "mov":
+                return "video/quicktime";
+            case "doc":
+                return "application/msword";
+            case "docx":
+                return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+            case "xls":
+                return "application/vnd.ms-excel";
+            case "xlsx":
+                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case "ppt":
+                return "application/vnd.ms-powerpoint";
+            case "pptx":
+                return "application/vnd.openxmlformats-officedocument.presentationml.presentation";
+            case "txt":
+                return "text/plain";
+            default:
+                return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+}
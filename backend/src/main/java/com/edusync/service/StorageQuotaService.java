@@ -0,0 +1,133 @@
+package com.edusync.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Per-uploader storage quotas backed by the {@code storage_usage} counters.
+ *
+ * Uploads are checked with {@link #checkAvailable} before the file is written, then
+ * {@link #charge} adds the file in the same transaction that inserts its resource row; the
+ * conditional update there is what actually enforces the quota when uploads race. Deletes
+ * {@link #release} in the transaction that removes the row. A periodic job recomputes counters
+ * that drifted from the resources table (rows changed outside the application, for example).
+ */
+@Service
+public class StorageQuotaService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageQuotaService.class);
+
+    private static final String ENSURE_ROW_SQL =
+            "INSERT IGNORE INTO storage_usage (uploader_id, used_bytes, file_count) VALUES (?, 0, 0)";
+
+    // Quota is the uploader's quota_bytes, else the default; 0 or less is unlimited
+    private static final String CHARGE_SQL = "UPDATE storage_usage "
+            + "SET used_bytes = used_bytes + ?, file_count = file_count + 1 "
+            + "WHERE uploader_id = ? AND (COALESCE(quota_bytes, ?) <= 0 OR used_bytes + ? <= COALESCE(quota_bytes, ?))";
+
+    private static final String RELEASE_SQL = "UPDATE storage_usage "
+            + "SET used_bytes = GREATEST(used_bytes - ?, 0), file_count = GREATEST(file_count - 1, 0) "
+            + "WHERE uploader_id = ?";
+
+    private static final String DRIFT_SQL = "SELECT u.uploader_id FROM storage_usage u "
+            + "LEFT JOIN (SELECT uploaded_by, SUM(file_size) AS used, COUNT(*) AS files FROM resources GROUP BY uploaded_by) r "
+            + "ON r.uploaded_by = u.uploader_id "
+            + "WHERE u.used_bytes <> COALESCE(r.used, 0) OR u.file_count <> COALESCE(r.files, 0) "
+            + "UNION "
+            + "SELECT DISTINCT r.uploaded_by FROM resources r "
+            + "WHERE NOT EXISTS (SELECT 1 FROM storage_usage u WHERE u.uploader_id = r.uploaded_by)";
+
+    private static final String RECOMPUTE_SQL = "UPDATE storage_usage SET "
+            + "used_bytes = (SELECT COALESCE(SUM(file_size), 0) FROM resources WHERE uploaded_by = ?), "
+            + "file_count = (SELECT COUNT(*) FROM resources WHERE uploaded_by = ?) "
+            + "WHERE uploader_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${storage.quota.faculty-bytes:5368709120}")
+    private long defaultQuotaBytes;
+
+    /** Current usage and quota of one uploader. */
+    public record Usage(long usedBytes, int fileCount, long quotaBytes) {
+
+        public boolean isUnlimited() {
+            return quotaBytes <= 0;
+        }
+
+        public long getRemainingBytes() {
+            return isUnlimited() ? -1 : Math.max(0, quotaBytes - usedBytes);
+        }
+    }
+
+    public Usage usage(Long uploaderId) {
+        List<Usage> rows = jdbcTemplate.query(
+                "SELECT used_bytes, file_count, quota_bytes FROM storage_usage WHERE uploader_id = ?",
+                (rs, i) -> {
+                    long quota = rs.getLong("quota_bytes");
+                    return new Usage(rs.getLong("used_bytes"), rs.getInt("file_count"),
+                            rs.wasNull() ? defaultQuotaBytes : quota);
+                },
+                uploaderId);
+        return rows.isEmpty() ? new Usage(0, 0, defaultQuotaBytes) : rows.get(0);
+    }
+
+    /** Reject an upload of {@code bytes} up front, before anything is written to storage. */
+    public void checkAvailable(Long uploaderId, long bytes) {
+        Usage usage = usage(uploaderId);
+        if (!usage.isUnlimited() && usage.usedBytes() + bytes > usage.quotaBytes()) {
+            throw new QuotaExceededException(usage.usedBytes(), usage.quotaBytes(), bytes);
+        }
+    }
+
+    /**
+     * Add a stored file to the uploader's usage, or throw if that would exceed the quota. Call it
+     * in the transaction that inserts the resource row, so both commit or roll back together.
+     */
+    public void charge(Long uploaderId, long bytes) {
+        jdbcTemplate.update(ENSURE_ROW_SQL, uploaderId);
+        int updated = jdbcTemplate.update(CHARGE_SQL, bytes, uploaderId, defaultQuotaBytes, bytes, defaultQuotaBytes);
+        if (updated == 0) {
+            Usage usage = usage(uploaderId);
+            throw new QuotaExceededException(usage.usedBytes(), usage.quotaBytes(), bytes);
+        }
+    }
+
+    /** Remove a deleted file from the uploader's usage, in the transaction that deletes its row. */
+    public void release(Long uploaderId, long bytes) {
+        jdbcTemplate.update(RELEASE_SQL, bytes, uploaderId);
+    }
+
+    @Scheduled(initialDelayString = "${storage.quota.reconcile-interval:3600000}",
+               fixedDelayString = "${storage.quota.reconcile-interval:3600000}")
+    public void reconcile() {
+        List<Long> drifted = jdbcTemplate.queryForList(DRIFT_SQL, Long.class);
+        for (Long uploaderId : drifted) {
+            // Recomputed in one statement from the committed rows, so uploads in flight are not lost
+            Usage before = usage(uploaderId);
+            jdbcTemplate.update(ENSURE_ROW_SQL, uploaderId);
+            jdbcTemplate.update(RECOMPUTE_SQL, uploaderId, uploaderId, uploaderId);
+            Usage after = usage(uploaderId);
+            if (before.usedBytes() != after.usedBytes() || before.fileCount() != after.fileCount()) {
+                log.warn("Storage usage of uploader {} drifted: {} bytes/{} files, actual {} bytes/{} files",
+                        uploaderId, before.usedBytes(), before.fileCount(), after.usedBytes(), after.fileCount());
+                Counter.builder("edusync.storage.quota.drift")
+                        .description("Usage counters corrected by reconciliation")
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.edusync.service;
+
+import com.edusync.storage.LocalObjectStorage;
+import com.edusync.storage.ObjectStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves files from the old flat upload layout into hash-prefix shards, a batch at a time, while
+ * the application keeps serving them.
+ *
+ * A file is first hard-linked (or copied, where links are not supported) into its shard, which
+ * readers prefer from then on. The flat name is only removed on a later pass, once
+ * {@code storage.sharding.grace-period} has passed, so a request that resolved the flat path just
+ * before the link still finds the file when it opens it. Only the local storage backend is sharded;
+ * with S3 there is nothing to do.
+ */
+@Service
+public class StorageShardMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageShardMigrator.class);
+
+    @Autowired
+    private ObjectStorage storage;
+
+    @Value("${storage.sharding.migrate:true}")
+    private boolean enabled;
+
+    @Value("${storage.sharding.batch-size:500}")
+    private int batchSize;
+
+    @Value("${storage.sharding.grace-period:5m}")
+    private Duration gracePeriod;
+
+    // Flat files already present in their shard, and since when
+    private final Map<Path, Instant> linkedAt = new ConcurrentHashMap<>();
+
+    @Scheduled(initialDelayString = "${storage.sharding.interval:60000}",
+               fixedDelayString = "${storage.sharding.interval:60000}")
+    public void migrateBatch() {
+        if (!enabled || !(storage instanceof LocalObjectStorage local)) {
+            return;
+        }
+        int budget = batchSize;
+        for (Path root : List.of(local.root().resolve("resources"), local.root(), local.root().resolve("certificates"))) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            budget -= migrate(root, budget);
+            if (budget <= 0) {
+                break;
+            }
+        }
+    }
+
+    // Returns the number of files linked or removed
+    private int migrate(Path root, int budget) {
+        int done = 0;
+        int scanned = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path flat : files) {
+                // Files waiting out their grace period don't count against the batch, but bound the scan
+                if (done >= budget || ++scanned > budget * 10) {
+                    break;
+                }
+                String fileName = flat.getFileName().toString();
+                if (fileName.startsWith(".")) {
+                    continue;
+                }
+                try {
+                    if (step(flat, LocalObjectStorage.shardedPath(root, fileName))) {
+                        done++;
+                    }
+                } catch (IOException ex) {
+                    log.warn("Could not migrate {} into its shard: {}", flat, ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Could not scan {} for unsharded files: {}", root, ex.getMessage());
+        }
+        if (done > 0) {
+            log.info("Shard migration root={} filesProcessed={}", root, done);
+        }
+        return done;
+    }
+
+    private boolean step(Path flat, Path sharded) throws IOException {
+        if (!Files.exists(sharded)) {
+            Files.createDirectories(sharded.getParent());
+            link(flat, sharded);
+            linkedAt.put(flat, Instant.now());
+            return true;
+        }
+        Instant since = linkedAt.putIfAbsent(flat, Instant.now());
+        if (since == null || since.plus(gracePeriod).isAfter(Instant.now())) {
+            return false;
+        }
+        // Only drop the flat name if the shard really holds the same contents
+        if (Files.isSameFile(flat, sharded) || Files.size(flat) == Files.size(sharded)) {
+            Files.deleteIfExists(flat);
+        } else {
+            log.warn("Not removing {}: {} differs from it", flat, sharded);
+        }
+        linkedAt.remove(flat);
+        return true;
+    }
+
+    private static void link(Path flat, Path sharded) throws IOException {
+        try {
+            Files.createLink(sharded, flat);
+        } catch (UnsupportedOperationException | IOException ex) {
+            // No hard links here: copy next to the target and move it into place atomically
+            Path temp = Files.createTempFile(sharded.getParent(), ".migrate-", ".tmp");
+            try {
+                Files.copy(flat, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, sharded, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.edusync.service;
 
+import com.edusync.diagnostics.CohereCallEvent;
 import com.edusync.entity.Resource;
+import com.edusync.metrics.MetricTags;
 import com.edusync.repository.ResourceRepository;
+import com.edusync.storage.LocalFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
@@ -11,7 +18,6 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -19,20 +25,25 @@ import java.util.Optional;
 @Service
 public class SummaryService {
 
+    private static final Logger log = LoggerFactory.getLogger(SummaryService.class);
+
     @Autowired
     private ResourceRepository resourceRepository;
 
     @Autowired
     private FileContentExtractionService fileContentExtractionService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${cohere.api.key:}")
     private String cohereApiKey;
 
     @Value("${cohere.api.base-url:https://api.cohere.ai/v1}")
     private String cohereApiBaseUrl;
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private FileStorageService fileStorageService;
 
     private final RestTemplate restTemplate = new RestTemplate();
 
@@ -40,21 +51,21 @@ public class SummaryService {
      * Generate a standard summary using Cohere API
      */
     public String generateSummary(String text) throws Exception {
-        return callCohereApi(text, 500, 0.3);
+        return callCohereApi(text, "standard", 500, 0.3);
     }
 
     /**
      * Generate a quick summary using Cohere API
      */
     public String generateQuickSummary(String text) throws Exception {
-        return callCohereApi(text, 200, 0.2);
+        return callCohereApi(text, "quick", 200, 0.2);
     }
 
     /**
      * Generate a detailed summary using Cohere API
      */
     public String generateDetailedSummary(String text) throws Exception {
-        return callCohereApi(text, 800, 0.4);
+        return callCohereApi(text, "detailed", 800, 0.4);
     }
 
     /**
@@ -92,7 +103,7 @@ public class SummaryService {
             }
             
         } catch (Exception e) {
-            System.err.println("Error extracting file content for resource " + resourceId + ": " + e.getMessage());
+            log.warn("Error extracting file content for resource {}: {}", resourceId, e.getMessage());
             
             // Fallback to title and description
             String fallbackText = createFallbackText(resource);
@@ -108,16 +119,15 @@ public class SummaryService {
      * Extract content from the actual uploaded file
      */
     private String extractFileContent(Resource resource) throws Exception {
-        try {
-            // Construct the file path
-            Path filePath = Paths.get(uploadDir, "resources", resource.getFileName());
-            
-            System.out.println("Attempting to extract content from file: " + filePath.toString());
+        // Tika needs a file; remote objects are downloaded to a temporary copy
+        String key = FileStorageService.resourceKey(resource.getFileName());
+        if (fileStorageService.stat(key).isEmpty()) {
+            throw new Exception("File not found: " + key);
+        }
+        try (LocalFile localFile = fileStorageService.localCopy(key)) {
+            Path filePath = localFile.path();
             
-            // Check if file exists
-            if (!filePath.toFile().exists()) {
-                throw new Exception("File not found: " + filePath.toString());
-            }
+            log.debug("Extracting content from {}", filePath);
             
             // Check if file type is supported
             if (!fileContentExtractionService.isSupportedFileType(filePath.toString())) {
@@ -131,11 +141,11 @@ public class SummaryService {
                 throw new Exception("No text content could be extracted from the file");
             }
             
-            System.out.println("Successfully extracted " + extractedText.length() + " characters from file");
+            log.debug("Extracted {} characters from {}", extractedText.length(), filePath.getFileName());
             return extractedText;
             
         } catch (Exception e) {
-            System.err.println("Failed to extract file content: " + e.getMessage());
+            log.debug("Failed to extract file content: {}", e.getMessage());
             throw e;
         }
     }
@@ -224,11 +234,17 @@ public class SummaryService {
     /**
      * Call Cohere API to generate summary
      */
-    private String callCohereApi(String text, int maxTokens, double temperature) throws Exception {
+    private String callCohereApi(String text, String mode, int maxTokens, double temperature) throws Exception {
         if (!isCohereConfigured()) {
             throw new Exception("Cohere API key is not configured");
         }
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CohereCallEvent event = new CohereCallEvent();
+        event.begin();
+        String outcome = MetricTags.ERROR;
+        int status = 0;
+        long promptChars = 0;
         try {
             // Truncate text if it's too long (Cohere has token limits)
             int maxInputLength = 4000; // Approximate token limit
@@ -245,6 +261,7 @@ public class SummaryService {
                            "5. Practical insights for students\n\n" +
                            "Make the summary educational and informative, helping students understand what they will learn from this material:\n\n" + 
                            truncatedText + "\n\nEducational Summary:";
+            promptChars = prompt.length();
 
             // Prepare request body
             Map<String, Object> requestBody = new HashMap<>();
@@ -274,6 +291,7 @@ public class SummaryService {
                 request, 
                 Map.class
             );
+            status = response.getStatusCode().value();
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> responseBody = response.getBody();
@@ -289,6 +307,7 @@ public class SummaryService {
                                 Map<?, ?> genMap = (Map<?, ?>) firstGen;
                                 if (genMap.containsKey("text")) {
                                     String summary = (String) genMap.get("text");
+                                    outcome = MetricTags.SUCCESS;
                                     return summary != null ? summary.trim() : "";
                                 }
                             }
@@ -302,6 +321,8 @@ public class SummaryService {
             }
 
         } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            status = e.getStatusCode().value();
             // Handle 4xx errors
             String errorMessage = "Client error from Cohere API: " + e.getStatusCode();
             if (e.getResponseBodyAsString() != null) {
@@ -310,6 +331,8 @@ public class SummaryService {
             throw new Exception(errorMessage);
             
         } catch (HttpServerErrorException e) {
+            outcome = "server_error";
+            status = e.getStatusCode().value();
             // Handle 5xx errors
             String errorMessage = "Server error from Cohere API: " + e.getStatusCode();
             if (e.getResponseBodyAsString() != null) {
@@ -323,6 +346,21 @@ public class SummaryService {
             } else {
                 throw new Exception("Error calling Cohere API: " + e.getMessage());
             }
+        } finally {
+            sample.stop(Timer.builder("edusync.summary.cohere")
+                    .description("Round trip of a Cohere generate call")
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            event.end();
+            if (event.shouldCommit()) {
+                event.mode = mode;
+                event.requestChars = promptChars;
+                event.maxTokens = maxTokens;
+                event.status = status;
+                event.outcome = outcome;
+                event.commit();
+            }
         }
     }
 }
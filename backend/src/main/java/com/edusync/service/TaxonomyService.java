@@ -0,0 +1,192 @@
+package com.edusync.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Dictionary of branches and their subjects ({@code branches}/{@code subjects}), which resources
+ * reference by id so listings filter on indexed integer columns.
+ *
+ * Names match ignoring case and spacing through their {@link #canonicalKey}; the first spelling
+ * added becomes the display name every resource of that branch or subject is saved with. The
+ * dictionary is small and held in memory as an immutable snapshot, so resolving a filter costs no
+ * query. Adding a name bumps the {@code taxonomy} collection version; a lookup that misses reloads
+ * the snapshot if that version moved (a name added by another instance), otherwise the name simply
+ * does not exist. Names are never removed.
+ */
+@Service
+public class TaxonomyService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaxonomyService.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    public record Subject(int id, String name) {}
+
+    public record Branch(int id, String name, List<Subject> subjects) {}
+
+    /** All branches with their subjects, by name, at one collection version. */
+    public record Taxonomy(long version, List<Branch> branches) {}
+
+    private record Snapshot(Taxonomy taxonomy, Map<String, Branch> branches, Map<String, Subject> subjects) {}
+
+    private volatile Snapshot snapshot;
+
+    /** True when {@code branch} selects every branch: blank or "All". */
+    public static boolean isAll(String branch) {
+        return branch == null || branch.isBlank() || branch.trim().equalsIgnoreCase("All");
+    }
+
+    /** Trimmed, inner whitespace collapsed to one space, lower case; same as the V8 backfill. */
+    public static String canonicalKey(String name) {
+        return displayName(name).toLowerCase(Locale.ROOT);
+    }
+
+    private static String displayName(String name) {
+        return WHITESPACE.matcher(name.trim()).replaceAll(" ");
+    }
+
+    private static String subjectKey(int branchId, String nameKey) {
+        return branchId + "/" + nameKey;
+    }
+
+    public Taxonomy taxonomy() {
+        Snapshot current = current();
+        if (collectionVersionService.version(CollectionVersionService.taxonomy()) != current.taxonomy().version()) {
+            current = reload();
+        }
+        return current.taxonomy();
+    }
+
+    public Optional<Branch> findBranch(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        String key = canonicalKey(name);
+        Branch branch = current().branches().get(key);
+        if (branch == null && reloadIfChanged()) {
+            branch = current().branches().get(key);
+        }
+        return Optional.ofNullable(branch);
+    }
+
+    public Optional<Subject> findSubject(Branch branch, String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        String key = subjectKey(branch.id(), canonicalKey(name));
+        Subject subject = current().subjects().get(key);
+        if (subject == null && reloadIfChanged()) {
+            subject = current().subjects().get(key);
+        }
+        return Optional.ofNullable(subject);
+    }
+
+    public Optional<Integer> findBranchId(String branch) {
+        return findBranch(branch).map(Branch::id);
+    }
+
+    public Optional<Integer> findSubjectId(String branch, String subject) {
+        return findBranch(branch).flatMap(found -> findSubject(found, subject)).map(Subject::id);
+    }
+
+    /** The branch named {@code name}, added to the dictionary if new. */
+    public Branch ensureBranch(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Branch name is required");
+        }
+        Optional<Branch> existing = findBranch(name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        int added = jdbcTemplate.update("INSERT IGNORE INTO branches (name, name_key) VALUES (?, ?)",
+                displayName(name), canonicalKey(name));
+        int id = jdbcTemplate.queryForObject("SELECT id FROM branches WHERE name_key = ?", Integer.class,
+                canonicalKey(name));
+        if (added > 0) {
+            log.info("Added branch '{}' (id {})", displayName(name), id);
+            collectionVersionService.bump(CollectionVersionService.taxonomy());
+        }
+        Branch branch = reload().branches().get(canonicalKey(name));
+        return branch != null ? branch : new Branch(id, displayName(name), List.of());
+    }
+
+    /** The subject {@code name} of {@code branch}, added to the dictionary if new. */
+    public Subject ensureSubject(Branch branch, String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Subject name is required");
+        }
+        Optional<Subject> existing = findSubject(branch, name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        int added = jdbcTemplate.update("INSERT IGNORE INTO subjects (branch_id, name, name_key) VALUES (?, ?, ?)",
+                branch.id(), displayName(name), canonicalKey(name));
+        int id = jdbcTemplate.queryForObject("SELECT id FROM subjects WHERE branch_id = ? AND name_key = ?",
+                Integer.class, branch.id(), canonicalKey(name));
+        if (added > 0) {
+            log.info("Added subject '{}' to branch '{}' (id {})", displayName(name), branch.name(), id);
+            collectionVersionService.bump(CollectionVersionService.taxonomy());
+        }
+        Subject subject = reload().subjects().get(subjectKey(branch.id(), canonicalKey(name)));
+        return subject != null ? subject : new Subject(id, displayName(name));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    // One primary-key read; only a changed version costs a reload
+    private boolean reloadIfChanged() {
+        if (collectionVersionService.version(CollectionVersionService.taxonomy()) == current().taxonomy().version()) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    private synchronized Snapshot reload() {
+        // Version first: anything added while loading bumps it past the snapshot's
+        long version = collectionVersionService.version(CollectionVersionService.taxonomy());
+
+        Map<Integer, List<Subject>> subjectsByBranch = new HashMap<>();
+        Map<String, Subject> subjects = new HashMap<>();
+        jdbcTemplate.query("SELECT id, branch_id, name, name_key FROM subjects ORDER BY name", rs -> {
+            Subject subject = new Subject(rs.getInt("id"), rs.getString("name"));
+            subjectsByBranch.computeIfAbsent(rs.getInt("branch_id"), id -> new ArrayList<>()).add(subject);
+            subjects.put(subjectKey(rs.getInt("branch_id"), rs.getString("name_key")), subject);
+        });
+
+        List<Branch> branches = new ArrayList<>();
+        Map<String, Branch> branchesByKey = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, name_key FROM branches ORDER BY name", rs -> {
+            int id = rs.getInt("id");
+            Branch branch = new Branch(id, rs.getString("name"), List.copyOf(subjectsByBranch.getOrDefault(id, List.of())));
+            branches.add(branch);
+            branchesByKey.put(rs.getString("name_key"), branch);
+        });
+
+        Snapshot loaded = new Snapshot(new Taxonomy(version, List.copyOf(branches)), Map.copyOf(branchesByKey),
+                Map.copyOf(subjects));
+        snapshot = loaded;
+        return loaded;
+    }
+}
@@ -4,9 +4,11 @@ import com.edusync.dto.LoginRequest;
 import com.edusync.dto.RegisterRequest;
 import com.edusync.dto.ResetPasswordRequest;
 import com.edusync.entity.User;
+import com.edusync.repository.UserProfilePictureRepository;
 import com.edusync.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.List;
@@ -17,6 +19,12 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserProfilePictureRepository userProfilePictureRepository;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
     public User registerUser(RegisterRequest request) throws Exception {
         // Check if user already exists
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
@@ -42,7 +50,7 @@ public class UserService {
         user.setPassword(request.getPassword()); // Simple storage for hackathon
         user.setRole(userRole);
 
-        return userRepository.save(user);
+        return persist(user);
     }
 
     public User authenticateUser(LoginRequest request) {
@@ -54,7 +62,7 @@ public class UserService {
             if (user.getPassword().equals(request.getPassword())) { // Simple comparison for hackathon
                 // Update last login time
                 user.setLastLogin(java.time.LocalDateTime.now());
-                return userRepository.save(user);
+                return persist(user);
             }
         }
         throw new RuntimeException("Invalid credentials");
@@ -69,7 +77,20 @@ public class UserService {
     }
 
     public User saveUser(User user) {
-        return userRepository.save(user);
+        return persist(user);
+    }
+
+    // Profile pictures are stored on the users row but loaded separately from User
+    public String getProfilePicture(Long userId) {
+        return userProfilePictureRepository.findById(userId)
+                .map(picture -> picture.getProfilePicture())
+                .orElse(null);
+    }
+
+    @Transactional
+    public void updateProfilePicture(Long userId, String profilePicture) {
+        userProfilePictureRepository.findById(userId)
+                .ifPresent(picture -> picture.setProfilePicture(profilePicture));
     }
     
     public List<User> getAllUsers() {
@@ -84,8 +105,15 @@ public class UserService {
         
         // Update password directly
         user.setPassword(newPassword);
-        userRepository.save(user);
+        persist(user);
         
         return "Password has been reset successfully";
     }
+
+    // The user record is part of the portfolio summary, so saving it bumps the portfolio version
+    private User persist(User user) {
+        User saved = userRepository.save(user);
+        collectionVersionService.bump(CollectionVersionService.portfolio(saved.getId()));
+        return saved;
+    }
 }
@@ -0,0 +1,102 @@
+package com.edusync.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip at rest for text-heavy uploads. A compressed object is stored as {@code <key>.gz} next to
+ * where {@code <key>} would be; only file types in {@link #COMPRESSIBLE_EXTENSIONS} are ever
+ * stored that way, so other keys never need the extra lookup.
+ *
+ * Gzip rather than zstd: the tree has no zstd codec, and gzip is the encoding every client
+ * accepts as {@code Content-Encoding} (current Chrome and Firefox also accept zstd, but older
+ * browsers and most HTTP libraries do not). The stored bytes are served unchanged to clients that
+ * send {@code Accept-Encoding: gzip}; others get them decompressed on the fly.
+ */
+public final class AtRestCompression {
+
+    public static final String SUFFIX = ".gz";
+
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of(
+            "txt", "csv", "tsv", "rtf", "md", "json", "xml", "html", "htm", "log", "svg",
+            "doc", "ppt", "xls");
+
+    private static final int SAMPLE_BYTES = 64 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private AtRestCompression() {
+    }
+
+    /** Whether files of this type may be stored compressed. */
+    public static boolean isCompressible(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && COMPRESSIBLE_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    public static String compressedKey(String key) {
+        return key + SUFFIX;
+    }
+
+    /** The key {@code storedKey} was stored for: {@code <key>.gz} maps back to {@code <key>}. */
+    public static String logicalKey(String storedKey) {
+        if (storedKey.endsWith(SUFFIX)) {
+            String key = storedKey.substring(0, storedKey.length() - SUFFIX.length());
+            if (isCompressible(key)) {
+                return key;
+            }
+        }
+        return storedKey;
+    }
+
+    /**
+     * Compress the first 64 KB of {@code content} and check whether it shrinks to at most
+     * {@code maxRatio} of its size. Already-compressed payloads (zipped text, embedded images)
+     * fail the check and are stored as they are.
+     */
+    public static boolean worthCompressing(InputStream content, double maxRatio) throws IOException {
+        byte[] sample;
+        try (content) {
+            sample = content.readNBytes(SAMPLE_BYTES);
+        }
+        if (sample.length == 0) {
+            return false;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(sample.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            gzip.write(sample);
+        }
+        return compressed.size() <= sample.length * maxRatio;
+    }
+
+    /** Gzip {@code content} into {@code target}. */
+    public static void compress(InputStream content, Path target) throws IOException {
+        try (content; OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), BUFFER_SIZE)) {
+            content.transferTo(out);
+        }
+    }
+
+    /**
+     * Uncompressed size of a stored gzip object, read from its trailer (ISIZE, the size modulo
+     * 2^32; uploads are far below 4 GB) with a ranged read of the last four bytes.
+     */
+    public static long uncompressedSize(ObjectStorage storage, StoredObject compressed) throws IOException {
+        if (compressed.size() < 4) {
+            throw new IOException("Truncated gzip object " + compressed.key());
+        }
+        byte[] trailer;
+        try (InputStream in = storage.read(compressed.key(), compressed.size() - 4, 4)) {
+            trailer = in.readNBytes(4);
+        }
+        if (trailer.length < 4) {
+            throw new IOException("Truncated gzip object " + compressed.key());
+        }
+        return (trailer[0] & 0xFFL) | (trailer[1] & 0xFFL) << 8 | (trailer[2] & 0xFFL) << 16 | (trailer[3] & 0xFFL) << 24;
+    }
+}
@@ -0,0 +1,73 @@
+package com.edusync.storage;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An object stored gzipped at rest (see {@link AtRestCompression}), exposed with its original
+ * contents: streams decompress on the fly and the length is the uncompressed size. The stored
+ * gzip bytes are available from {@link #encoded()} for clients that accept them as is.
+ */
+public class CompressedObjectResource extends AbstractResource {
+
+    private final String key;
+    private final Resource encoded;
+    private final long uncompressedSize;
+
+    public CompressedObjectResource(String key, Resource encoded, long uncompressedSize) {
+        this.key = key;
+        this.encoded = encoded;
+        this.uncompressedSize = uncompressedSize;
+    }
+
+    /** The stored gzip bytes, to be served with {@code Content-Encoding: gzip}. */
+    public Resource encoded() {
+        return encoded;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        InputStream in = encoded.getInputStream();
+        try {
+            return new GZIPInputStream(in, 64 * 1024);
+        } catch (IOException | RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return uncompressedSize;
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return encoded.lastModified();
+    }
+
+    @Override
+    public URI getURI() {
+        return URI.create("storage:/" + key);
+    }
+
+    @Override
+    public String getFilename() {
+        return ObjectStorage.fileName(key);
+    }
+
+    @Override
+    public String getDescription() {
+        return "compressed object [" + key + "]";
+    }
+}
@@ -0,0 +1,19 @@
+package com.edusync.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A stored object as a file on local disk, for code that needs a real file (Tika, PDFBox, ImageIO).
+ * Temporary copies are deleted on close; files owned by the local backend are left alone.
+ */
+public record LocalFile(Path path, boolean temporary) implements AutoCloseable {
+
+    @Override
+    public void close() throws IOException {
+        if (temporary) {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.edusync.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Objects as files under one root directory.
+ *
+ * A key {@code dir/name} is stored at {@code root/dir/ab/cd/name}, where {@code abcd} are the first
+ * hex digits of the MD5 of the name, so no directory grows past a few files per thousand uploads.
+ * Files from the old flat layout ({@code root/dir/name}) are still found until
+ * StorageShardMigrator has moved them.
+ */
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+
+    public LocalObjectStorage(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /** Sharded location of {@code fileName} in {@code dir}: {@code dir/ab/cd/fileName}. */
+    public static Path shardedPath(Path dir, String fileName) {
+        String shard = shardOf(fileName);
+        return dir.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4)).resolve(fileName).normalize();
+    }
+
+    // First four hex digits of the name's MD5
+    static String shardOf(String fileName) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("MD5").digest(fileName.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 not available", ex);
+        }
+        return HexFormat.of().formatHex(hash, 0, 2);
+    }
+
+    @Override
+    public void write(String key, InputStream content, long size, String contentType) throws IOException {
+        Path target = shardedLocation(key);
+        Files.createDirectories(target.getParent());
+        // Write next to the target and move it into place, so readers never see a partial file
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try (content) {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        return Files.newInputStream(locate(key));
+    }
+
+    @Override
+    public InputStream read(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(locate(key), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            return new LimitedInputStream(Channels.newInputStream(channel), length);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Path path = locate(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return Optional.of(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toMillis()));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(shardedLocation(key));
+        Files.deleteIfExists(flatLocation(key));
+    }
+
+    /**
+     * Objects in layout order rather than key order: files still in the old flat layout first, then
+     * shard by shard ({@code 00/00} to {@code ff/ff}), by name within each directory. The shard of
+     * {@code startAfter} is recomputed from its name, so a page only reads the directories it
+     * returns objects from. A flat file migrated between two pages ends the flat part early; the
+     * files skipped that way are listed by the next pass.
+     */
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException {
+        String dirKey = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+        Path dir = dirKey.isEmpty() ? root : resolve(dirKey);
+        if (!Files.isDirectory(dir) || maxKeys <= 0) {
+            return List.of();
+        }
+        String keyPrefix = dirKey.isEmpty() ? "" : dirKey + "/";
+        String afterName = startAfter == null ? null : ObjectStorage.fileName(startAfter);
+
+        List<StoredObject> page = new ArrayList<>();
+        String resumeShard = null;
+        if (afterName == null || Files.isRegularFile(dir.resolve(afterName))) {
+            listFiles(dir, keyPrefix, afterName, maxKeys, page);
+            afterName = null;
+        } else {
+            resumeShard = shardOf(afterName);
+        }
+
+        for (String first : shardNames(dir)) {
+            if (page.size() >= maxKeys) {
+                break;
+            }
+            if (resumeShard != null && first.compareTo(resumeShard.substring(0, 2)) < 0) {
+                continue;
+            }
+            for (String second : shardNames(dir.resolve(first))) {
+                if (page.size() >= maxKeys) {
+                    break;
+                }
+                int position = resumeShard == null ? 1 : (first + second).compareTo(resumeShard);
+                if (position >= 0) {
+                    listFiles(dir.resolve(first).resolve(second), keyPrefix, position == 0 ? afterName : null,
+                            maxKeys, page);
+                }
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        Path path = locate(key);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return Files.isDirectory(root) && Files.isWritable(root);
+    }
+
+    @Override
+    public String describe() {
+        return "local " + root;
+    }
+
+    /** The sharded file, or the flat one while it has not been migrated yet. */
+    Path locate(String key) {
+        Path sharded = shardedLocation(key);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path flat = flatLocation(key);
+        if (Files.exists(flat)) {
+            return flat;
+        }
+        // The migrator may have moved it in between
+        return sharded;
+    }
+
+    private Path shardedLocation(String key) {
+        int slash = key.lastIndexOf('/');
+        Path dir = slash < 0 ? root : resolve(key.substring(0, slash));
+        return shardedPath(dir, key.substring(slash + 1));
+    }
+
+    private Path flatLocation(String key) {
+        return resolve(key);
+    }
+
+    private Path resolve(String relative) {
+        Path path = root.resolve(relative).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid storage key " + relative);
+        }
+        return path;
+    }
+
+    // Shard subdirectories of dir, in order; reads dir's entries but not the shards themselves
+    private static List<String> shardNames(Path dir) throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries
+                    .map(path -> path.getFileName().toString())
+                    .filter(LocalObjectStorage::isShardName)
+                    .filter(name -> Files.isDirectory(dir.resolve(name)))
+                    .sorted()
+                    .toList();
+        } catch (NoSuchFileException ex) {
+            return List.of();
+        }
+    }
+
+    // Adds the files of one directory named after afterName (if given) to page, up to maxKeys in all;
+    // skips subdirectories and temp files
+    private static void listFiles(Path dir, String keyPrefix, String afterName, int maxKeys,
+                                  List<StoredObject> page) throws IOException {
+        List<String> names;
+        try (Stream<Path> entries = Files.list(dir)) {
+            names = entries
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> !name.startsWith(".") && (afterName == null || name.compareTo(afterName) > 0))
+                    .sorted()
+                    .toList();
+        } catch (NoSuchFileException ex) {
+            return;
+        }
+        for (String name : names) {
+            if (page.size() >= maxKeys) {
+                return;
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(dir.resolve(name), BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    page.add(new StoredObject(keyPrefix + name, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            } catch (IOException ex) {
+                // Deleted or moved since the directory was read
+            }
+        }
+    }
+
+    private static boolean isShardName(String name) {
+        return name.length() == 2 && HexFormat.isHexDigit(name.charAt(0)) && HexFormat.isHexDigit(name.charAt(1));
+    }
+}
@@ -0,0 +1,74 @@
+package com.edusync.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where uploaded files live. Keys are slash-separated ({@code resources/<fileName>},
+ * {@code certificates/<fileName>}, or a bare file name for profile images).
+ *
+ * Implementations: {@link LocalObjectStorage} (sharded directories under {@code file.upload-dir})
+ * and {@link S3ObjectStorage} (any S3-compatible service), selected with {@code storage.backend}.
+ */
+public interface ObjectStorage {
+
+    /** Store {@code content} ({@code size} bytes, or -1 if unknown) under {@code key}, replacing any existing object. */
+    void write(String key, InputStream content, long size, String contentType) throws IOException;
+
+    InputStream read(String key) throws IOException;
+
+    /** {@code length} bytes starting at {@code offset}; fewer if the object ends first. */
+    InputStream read(String key, long offset, long length) throws IOException;
+
+    /**
+     * Close a stream from {@code read} that was not read to the end. The default just closes it;
+     * backends whose close drains the rest of the object (S3) drop the connection instead.
+     */
+    default void abort(InputStream stream) throws IOException {
+        stream.close();
+    }
+
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Up to {@code maxKeys} objects under {@code prefix}, starting after {@code startAfter} (a key
+     * an earlier page returned, or null for the beginning). The order is fixed by the backend: key
+     * order for S3, directory layout order for local storage.
+     */
+    List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException;
+
+    /** The object's file when this backend keeps objects on local disk. */
+    Optional<Path> localPath(String key);
+
+    boolean isAvailable();
+
+    String describe();
+
+    /** The object as a local file, downloading it to a temporary file if needed. */
+    default LocalFile localCopy(String key) throws IOException {
+        Optional<Path> local = localPath(key);
+        if (local.isPresent()) {
+            return new LocalFile(local.get(), false);
+        }
+        // Keep the file name (and so the extension) for type detection
+        Path temp = Files.createTempFile("edusync-", "-" + fileName(key));
+        try (InputStream in = read(key)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        return new LocalFile(temp, true);
+    }
+
+    static String fileName(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.edusync.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * A stored object as a Spring {@code Resource}, for backends without local files.
+ *
+ * Streams are opened lazily and a {@code skip} before the first read becomes the start of a
+ * ranged read, so the byte ranges Spring serves for {@code Range} requests are fetched directly
+ * instead of reading and discarding everything before them. Closing a stream before the end of
+ * the object aborts the read (see {@link ObjectStorage#abort}), so nothing after the range is
+ * transferred either.
+ */
+public class ObjectStorageResource extends AbstractResource {
+
+    private final ObjectStorage storage;
+    private final StoredObject object;
+
+    public ObjectStorageResource(ObjectStorage storage, StoredObject object) {
+        this.storage = storage;
+        this.object = object;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new RangedInputStream();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return object.size();
+    }
+
+    @Override
+    public long lastModified() {
+        return object.lastModified();
+    }
+
+    @Override
+    public URI getURI() {
+        return URI.create("storage:/" + object.key());
+    }
+
+    @Override
+    public String getFilename() {
+        return ObjectStorage.fileName(object.key());
+    }
+
+    @Override
+    public String getDescription() {
+        return "stored object [" + object.key() + "]";
+    }
+
+    private final class RangedInputStream extends InputStream {
+
+        // Position in the object: where the read starts until it is opened, then how far it got
+        private long offset;
+        private boolean ended;
+        private InputStream delegate;
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (delegate != null) {
+                long skipped = delegate.skip(n);
+                offset += skipped;
+                return skipped;
+            }
+            long skipped = Math.max(0, Math.min(n, object.size() - offset));
+            offset += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = open().read();
+            if (b < 0) {
+                ended = true;
+            } else {
+                offset++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) throws IOException {
+            int read = open().read(bytes, off, len);
+            if (read < 0) {
+                ended = true;
+            } else {
+                offset += read;
+            }
+            return read;
+        }
+
+        // Spring stops reading at the end of the requested range; the rest of the object is not
+        // wanted, so the read is aborted rather than drained
+        @Override
+        public void close() throws IOException {
+            if (delegate == null) {
+                return;
+            }
+            if (ended || offset >= object.size()) {
+                delegate.close();
+            } else {
+                storage.abort(delegate);
+            }
+        }
+
+        private InputStream open() throws IOException {
+            if (delegate == null) {
+                delegate = offset == 0
+                        ? storage.read(object.key())
+                        : storage.read(object.key(), offset, object.size() - offset);
+            }
+            return delegate;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.edusync.storage;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Objects in an S3-compatible bucket (AWS S3, MinIO, ...), optionally under a key prefix.
+ *
+ * Uploads of unknown size or larger than {@code multipartThreshold} are sent as a multipart upload
+ * of {@code partSize} parts, so only one part is held in memory at a time. Ranged reads use HTTP
+ * Range requests, so serving part of a large video does not download all of it.
+ */
+public class S3ObjectStorage implements ObjectStorage {
+
+    // S3 rejects multipart parts smaller than this (except the last one)
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String keyPrefix;
+    private final long multipartThreshold;
+    private final int partSize;
+
+    public S3ObjectStorage(S3Client s3, String bucket, String keyPrefix, long multipartThreshold, long partSize) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix == null || keyPrefix.isBlank() ? ""
+                : (keyPrefix.endsWith("/") ? keyPrefix : keyPrefix + "/");
+        this.multipartThreshold = multipartThreshold;
+        this.partSize = (int) Math.max(MIN_PART_SIZE, partSize);
+    }
+
+    @Override
+    public void write(String key, InputStream content, long size, String contentType) throws IOException {
+        try (content) {
+            if (size >= 0 && size <= multipartThreshold) {
+                s3.putObject(PutObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(objectKey(key))
+                                .contentType(contentType)
+                                .contentLength(size)
+                                .build(),
+                        RequestBody.fromInputStream(content, size));
+            } else {
+                writeMultipart(key, content, contentType);
+            }
+        } catch (S3Exception ex) {
+            throw new IOException("Could not store " + key + " in bucket " + bucket, ex);
+        }
+    }
+
+    private void writeMultipart(String key, InputStream content, String contentType) throws IOException {
+        String objectKey = objectKey(key);
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(objectKey)
+                .contentType(contentType)
+                .build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            byte[] buffer = new byte[partSize];
+            for (int partNumber = 1; ; partNumber++) {
+                int filled = content.readNBytes(buffer, 0, buffer.length);
+                if (filled == 0 && partNumber > 1) {
+                    break;
+                }
+                String etag = s3.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(objectKey)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) filled)
+                                .build(),
+                        RequestBody.fromBytes(filled == buffer.length ? buffer : Arrays.copyOf(buffer, filled)))
+                        .eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+                if (filled < buffer.length) {
+                    break;
+                }
+            }
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | RuntimeException ex) {
+            // Don't leave invisible, billed parts behind
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey)
+                    .uploadId(uploadId)
+                    .build());
+            throw ex;
+        }
+    }
+
+    @Override
+    public InputStream read(String key) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not read " + key + " from bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public InputStream read(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        try {
+            return s3.getObject(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey(key))
+                    .range("bytes=" + offset + "-" + (offset + length - 1))
+                    .build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not read " + key + " from bucket " + bucket, ex);
+        }
+    }
+
+    // Closing a ResponseInputStream reads the rest of the body so the connection can be reused;
+    // for a short range of a large object, dropping the connection is far cheaper
+    @Override
+    public void abort(InputStream stream) throws IOException {
+        if (stream instanceof ResponseInputStream<?> response) {
+            response.abort();
+        }
+        stream.close();
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = s3.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(objectKey(key))
+                    .build());
+            return Optional.of(new StoredObject(key, head.contentLength(), head.lastModified().toEpochMilli()));
+        } catch (NoSuchKeyException ex) {
+            return Optional.empty();
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Could not stat " + key + " in bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (S3Exception ex) {
+            throw new IOException("Could not delete " + key + " from bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException {
+        try {
+            ListObjectsV2Request.Builder request = ListObjectsV2Request.builder()
+                    .bucket(bucket)
+                    .prefix(keyPrefix + prefix)
+                    .maxKeys(maxKeys);
+            if (startAfter != null) {
+                request.startAfter(objectKey(startAfter));
+            }
+            return s3.listObjectsV2(request.build()).contents().stream()
+                    .map(object -> new StoredObject(object.key().substring(keyPrefix.length()),
+                            object.size(), object.lastModified().toEpochMilli()))
+                    .toList();
+        } catch (S3Exception ex) {
+            throw new IOException("Could not list " + prefix + " in bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        try {
+            s3.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+            return true;
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "s3 " + bucket + "/" + keyPrefix;
+    }
+
+    private String objectKey(String key) {
+        return keyPrefix + key;
+    }
+}
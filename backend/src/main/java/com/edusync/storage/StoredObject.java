@@ -0,0 +1,7 @@
+package com.edusync.storage;
+
+/**
+ * Size and modification time of one stored object.
+ */
+public record StoredObject(String key, long size, long lastModified) {
+}
@@ -0,0 +1,9 @@
+-- Counters go with their resource. Rows left behind by resources deleted before this migration
+-- are removed first so the foreign key can be added.
+DELETE c FROM resource_counters c
+LEFT JOIN resources r ON r.id = c.resource_id
+WHERE r.id IS NULL;
+
+ALTER TABLE resource_counters
+    ADD CONSTRAINT fk_resource_counters_resource FOREIGN KEY (resource_id) REFERENCES resources (id)
+        ON DELETE CASCADE;
@@ -0,0 +1,84 @@
+-- Baseline schema, matching what Hibernate (ddl-auto=update) created for the current entities.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so this
+-- script only runs against an empty schema.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    first_name VARCHAR(50),
+    last_name VARCHAR(50),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role ENUM('STUDENT', 'FACULTY'),
+    profile_picture LONGTEXT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    last_login DATETIME(6),
+    is_active BOOLEAN DEFAULT TRUE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS resources (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    file_name VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    file_type VARCHAR(100) NOT NULL,
+    uploaded_by BIGINT NOT NULL,
+    upload_date DATETIME(6),
+    branch VARCHAR(100) NOT NULL,
+    subject VARCHAR(100),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS activities (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    start_date DATE,
+    end_date DATE,
+    credits INT,
+    certificate_file VARCHAR(255),
+    status ENUM('PENDING', 'APPROVED', 'REJECTED') NOT NULL,
+    approved_by BIGINT,
+    approved_at DATETIME(6),
+    rejection_reason VARCHAR(500),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS certificates (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    type VARCHAR(255),
+    file_path VARCHAR(255) NOT NULL,
+    upload_date DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS chat_threads (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    faculty_id BIGINT NOT NULL,
+    subject VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    last_message_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS chat_messages (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    thread_id BIGINT NOT NULL,
+    sender_id BIGINT NOT NULL,
+    sender_role VARCHAR(20) NOT NULL,
+    content TEXT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,28 @@
+-- Secondary indexes for the repository queries the API runs on every page load.
+-- Each one serves the WHERE columns first and the ORDER BY column second, so the rows come back
+-- already sorted and MySQL skips the filesort.
+
+-- ResourceRepository.findByUploadedByOrderByUploadedAtDesc / countByUploadedBy
+CREATE INDEX idx_resources_uploaded_by_upload_date ON resources (uploaded_by, upload_date);
+
+-- ResourceRepository.findByBranch / findByBranchAndSubjectIgnoreCase
+CREATE INDEX idx_resources_branch_subject ON resources (branch, subject);
+
+-- ResourceRepository.findAllByOrderByUploadedAtDesc
+CREATE INDEX idx_resources_upload_date ON resources (upload_date);
+
+-- ActivityRepository.findByStudentIdOrderByCreatedAtDesc (and the status/category variants)
+CREATE INDEX idx_activities_student_created ON activities (student_id, created_at);
+
+-- ActivityRepository.findByStatusOrderByCreatedAtDesc (faculty review queue)
+CREATE INDEX idx_activities_status_created ON activities (status, created_at);
+
+-- ChatThreadRepository.findByStudentIdOrderByLastMessageAtDesc / findByFacultyIdOrderByLastMessageAtDesc
+CREATE INDEX idx_chat_threads_student_last_message ON chat_threads (student_id, last_message_at);
+CREATE INDEX idx_chat_threads_faculty_last_message ON chat_threads (faculty_id, last_message_at);
+
+-- ChatMessageRepository.findByThreadIdOrderByCreatedAtAsc
+CREATE INDEX idx_chat_messages_thread_created ON chat_messages (thread_id, created_at);
+
+-- CertificateRepository.findByUserId
+CREATE INDEX idx_certificates_user_id ON certificates (user_id);
@@ -0,0 +1,8 @@
+-- Version stamps for polled collections (resource listings, chat inboxes, portfolios).
+-- CollectionVersionService bumps a row in the same transaction as the write it describes, and
+-- list endpoints turn the current version into an ETag.
+CREATE TABLE IF NOT EXISTS collection_versions (
+    collection_key VARCHAR(191) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (collection_key)
+);
@@ -0,0 +1,8 @@
+-- Resume points of OrphanFileReconciler: the last storage key checked under each prefix, so a
+-- restart continues the pass instead of rescanning the store from the beginning.
+CREATE TABLE IF NOT EXISTS storage_scan_cursors (
+    prefix VARCHAR(64) NOT NULL,
+    last_key VARCHAR(512) NULL,
+    pass_started_at DATETIME NOT NULL,
+    PRIMARY KEY (prefix)
+);
@@ -0,0 +1,16 @@
+-- Bytes and files each faculty member has uploaded, kept in step with the resources table by
+-- ResourceService (same transaction as the resource row) and periodically reconciled against it.
+-- quota_bytes overrides storage.quota.faculty-bytes for one uploader; 0 means unlimited.
+CREATE TABLE IF NOT EXISTS storage_usage (
+    uploader_id BIGINT NOT NULL,
+    used_bytes BIGINT NOT NULL DEFAULT 0,
+    file_count INT NOT NULL DEFAULT 0,
+    quota_bytes BIGINT NULL,
+    PRIMARY KEY (uploader_id)
+);
+
+INSERT INTO storage_usage (uploader_id, used_bytes, file_count)
+SELECT uploaded_by, SUM(file_size), COUNT(*)
+FROM resources
+GROUP BY uploaded_by
+ON DUPLICATE KEY UPDATE used_bytes = VALUES(used_bytes), file_count = VALUES(file_count);
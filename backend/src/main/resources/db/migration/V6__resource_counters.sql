@@ -0,0 +1,8 @@
+-- View/download totals per resource. Read paths only bump in-memory counters; ResourceCounterService
+-- adds them here in batched upserts every few seconds, so reads never lock resource rows.
+CREATE TABLE IF NOT EXISTS resource_counters (
+    resource_id BIGINT NOT NULL,
+    views BIGINT NOT NULL DEFAULT 0,
+    downloads BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (resource_id)
+);
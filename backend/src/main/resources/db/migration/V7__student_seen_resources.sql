@@ -0,0 +1,7 @@
+-- Resources each student has opened, as one serialized roaring bitmap of resource ids per student
+-- (a few bytes to a few KB), written behind by SeenResourceService.
+CREATE TABLE IF NOT EXISTS student_seen_resources (
+    student_id BIGINT NOT NULL,
+    seen_bitmap MEDIUMBLOB NOT NULL,
+    PRIMARY KEY (student_id)
+);
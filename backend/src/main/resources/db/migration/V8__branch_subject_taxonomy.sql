@@ -0,0 +1,68 @@
+-- Branch and subject dictionaries. Resources keep their branch/subject text for display and get
+-- integer references that listings filter on, replacing case-folding string comparisons.
+-- name_key is the canonical form lookups match on: trimmed, inner whitespace collapsed to one
+-- space, lower case (TaxonomyService.canonicalKey does the same in Java).
+CREATE TABLE IF NOT EXISTS branches (
+    id INT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    name_key VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_branches_name_key (name_key)
+);
+
+CREATE TABLE IF NOT EXISTS subjects (
+    id INT NOT NULL AUTO_INCREMENT,
+    branch_id INT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    name_key VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_subjects_branch_name_key (branch_id, name_key),
+    CONSTRAINT fk_subjects_branch FOREIGN KEY (branch_id) REFERENCES branches (id)
+);
+
+-- One entry per distinct name ignoring case and spacing; the display name is one of its spellings
+INSERT IGNORE INTO branches (name, name_key)
+SELECT MIN(t.name), t.name_key
+FROM (SELECT TRIM(REGEXP_REPLACE(branch, '[[:space:]]+', ' ')) AS name,
+             LOWER(TRIM(REGEXP_REPLACE(branch, '[[:space:]]+', ' '))) AS name_key
+      FROM resources) t
+WHERE t.name_key <> ''
+GROUP BY t.name_key;
+
+INSERT IGNORE INTO subjects (branch_id, name, name_key)
+SELECT b.id, MIN(t.name), t.name_key
+FROM (SELECT LOWER(TRIM(REGEXP_REPLACE(branch, '[[:space:]]+', ' '))) AS branch_key,
+             TRIM(REGEXP_REPLACE(subject, '[[:space:]]+', ' ')) AS name,
+             LOWER(TRIM(REGEXP_REPLACE(subject, '[[:space:]]+', ' '))) AS name_key
+      FROM resources
+      WHERE subject IS NOT NULL) t
+JOIN branches b ON b.name_key = t.branch_key
+WHERE t.name_key <> ''
+GROUP BY b.id, t.name_key;
+
+ALTER TABLE resources
+    ADD COLUMN branch_id INT NULL,
+    ADD COLUMN subject_id INT NULL;
+
+UPDATE resources r
+JOIN branches b ON b.name_key = LOWER(TRIM(REGEXP_REPLACE(r.branch, '[[:space:]]+', ' ')))
+SET r.branch_id = b.id;
+
+UPDATE resources r
+JOIN subjects s ON s.branch_id = r.branch_id
+               AND s.name_key = LOWER(TRIM(REGEXP_REPLACE(r.subject, '[[:space:]]+', ' ')))
+SET r.subject_id = s.id;
+
+-- ResourceRepository.streamSummariesByBranchId
+CREATE INDEX idx_resources_branch_id_upload_date ON resources (branch_id, upload_date);
+
+-- ResourceRepository.streamSummariesBySubjectId
+-- (a subject belongs to one branch, so its id alone selects the rows)
+CREATE INDEX idx_resources_subject_id_upload_date ON resources (subject_id, upload_date);
+
+ALTER TABLE resources
+    ADD CONSTRAINT fk_resources_branch FOREIGN KEY (branch_id) REFERENCES branches (id),
+    ADD CONSTRAINT fk_resources_subject FOREIGN KEY (subject_id) REFERENCES subjects (id);
+
+-- Superseded by the id indexes above
+DROP INDEX idx_resources_branch_subject ON resources;
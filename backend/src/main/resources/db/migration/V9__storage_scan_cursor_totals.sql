@@ -0,0 +1,14 @@
+-- Totals of the pass in progress and of the last completed pass, per prefix. Several nodes take
+-- turns scanning pages (each page is claimed by locking its cursor row), so the totals live here
+-- rather than in one node's memory.
+ALTER TABLE storage_scan_cursors
+    ADD COLUMN pass_scanned BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN pass_orphans BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN pass_orphan_bytes BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN pass_reclaimed BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_pass_started_at DATETIME NULL,
+    ADD COLUMN last_pass_completed_at DATETIME NULL,
+    ADD COLUMN last_pass_scanned BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_pass_orphans BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_pass_orphan_bytes BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_pass_reclaimed BIGINT NOT NULL DEFAULT 0;
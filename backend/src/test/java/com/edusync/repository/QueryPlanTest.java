@@ -0,0 +1,229 @@
+package com.edusync.repository;
+
+import com.edusync.entity.Activity;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for the hot repository queries and fails when one
+ * of them no longer uses an index.
+ *
+ * Runs against a throwaway MySQL container migrated by Flyway, so the plans come from the same
+ * optimizer as production. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.edusync.repository.QueryPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    // Seed rows are tagged with this marker so they can be removed again
+    private static final String MARKER = "explain-test";
+    private static final int ROWS = 2000;
+    private static final int BRANCHES = 20;
+    private static final int SUBJECTS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ChatThreadRepository chatThreadRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    // Taxonomy ids of the seeded branch/subject names
+    private final Map<String, Integer> branchIds = new HashMap<>();
+    private final Map<String, Integer> subjectIds = new HashMap<>();
+
+    @BeforeAll
+    void seed() {
+        seedTaxonomy();
+        // Enough rows that a full scan is never the cheapest plan for a selective predicate
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> resources = new ArrayList<>();
+        List<Object[]> activities = new ArrayList<>();
+        List<Object[]> threads = new ArrayList<>();
+        List<Object[]> messages = new ArrayList<>();
+        List<Object[]> certificates = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Timestamp at = Timestamp.valueOf(now.minusMinutes(i));
+            long owner = 1_000_000L + i % 200;
+            String branch = MARKER + "-b" + i % BRANCHES;
+            String subject = MARKER + "-s" + i % SUBJECTS;
+            resources.add(new Object[]{MARKER, MARKER + i, 1L, "application/pdf", owner, at, branch, subject,
+                    branchIds.get(branch), subjectIds.get(branch + "/" + subject)});
+            activities.add(new Object[]{owner, MARKER, MARKER, i % 20 == 0 ? "PENDING" : "APPROVED", at, at});
+            threads.add(new Object[]{owner, 2_000_000L + i % 50, MARKER, at, at});
+            messages.add(new Object[]{3_000_000L + i % 200, owner, "STUDENT", MARKER, at});
+            certificates.add(new Object[]{owner, MARKER, MARKER, at});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO resources (title, file_name, file_size, file_type, uploaded_by, upload_date, "
+                + "branch, subject, branch_id, subject_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", resources);
+        jdbcTemplate.batchUpdate("INSERT INTO activities (student_id, category, title, status, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", activities);
+        jdbcTemplate.batchUpdate("INSERT INTO chat_threads (student_id, faculty_id, subject, created_at, last_message_at) "
+                + "VALUES (?, ?, ?, ?, ?)", threads);
+        jdbcTemplate.batchUpdate("INSERT INTO chat_messages (thread_id, sender_id, sender_role, content, created_at) "
+                + "VALUES (?, ?, ?, ?, ?)", messages);
+        jdbcTemplate.batchUpdate("INSERT INTO certificates (user_id, title, file_path, upload_date) VALUES (?, ?, ?, ?)",
+                certificates);
+        jdbcTemplate.execute("ANALYZE TABLE resources, activities, chat_threads, chat_messages, certificates");
+    }
+
+    // Every branch gets every subject; names are lower case, so they are their own name_key
+    private void seedTaxonomy() {
+        List<Object[]> branches = new ArrayList<>();
+        for (int b = 0; b < BRANCHES; b++) {
+            branches.add(new Object[]{MARKER + "-b" + b, MARKER + "-b" + b});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO branches (name, name_key) VALUES (?, ?)", branches);
+        jdbcTemplate.query("SELECT id, name FROM branches WHERE name LIKE ?",
+                rs -> { branchIds.put(rs.getString("name"), rs.getInt("id")); }, MARKER + "-b%");
+
+        List<Object[]> subjects = new ArrayList<>();
+        branchIds.forEach((branch, branchId) -> {
+            for (int s = 0; s < SUBJECTS; s++) {
+                subjects.add(new Object[]{branchId, MARKER + "-s" + s, MARKER + "-s" + s});
+            }
+        });
+        jdbcTemplate.batchUpdate("INSERT INTO subjects (branch_id, name, name_key) VALUES (?, ?, ?)", subjects);
+        jdbcTemplate.query("SELECT s.id, s.name, b.name AS branch FROM subjects s JOIN branches b ON b.id = s.branch_id "
+                + "WHERE b.name LIKE ?",
+                rs -> { subjectIds.put(rs.getString("branch") + "/" + rs.getString("name"), rs.getInt("id")); },
+                MARKER + "-b%");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM resources WHERE title = ?", MARKER);
+        jdbcTemplate.update("DELETE FROM activities WHERE category = ?", MARKER);
+        jdbcTemplate.update("DELETE FROM chat_threads WHERE subject = ?", MARKER);
+        jdbcTemplate.update("DELETE FROM chat_messages WHERE content = ?", MARKER);
+        jdbcTemplate.update("DELETE FROM certificates WHERE title = ?", MARKER);
+        jdbcTemplate.update("DELETE s FROM subjects s JOIN branches b ON b.id = s.branch_id WHERE b.name LIKE ?", MARKER + "-b%");
+        jdbcTemplate.update("DELETE FROM branches WHERE name LIKE ?", MARKER + "-b%");
+    }
+
+    @Test
+    void resourceQueriesUseIndexes() {
+        assertIndexed(() -> resourceRepository.findByUploadedByOrderByUploadedAtDesc(1_000_007L), 1_000_007L);
+        int branchId = branchIds.get(MARKER + "-b3");
+        int subjectId = subjectIds.get(MARKER + "-b3/" + MARKER + "-s3");
+        assertUsesIndex("idx_resources_branch_id_upload_date",
+                () -> consume(resourceRepository.streamSummariesByBranchId(branchId)), branchId);
+        assertUsesIndex("idx_resources_subject_id_upload_date",
+                () -> consume(resourceRepository.streamSummariesBySubjectId(subjectId)), subjectId);
+    }
+
+    // Read every row, as a listing would
+    private void consume(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> { });
+        }
+    }
+
+    @Test
+    void activityQueriesUseIndexes() {
+        assertIndexed(() -> activityRepository.findByStudentIdOrderByCreatedAtDesc(1_000_007L), 1_000_007L);
+        assertIndexed(() -> activityRepository.findByStatusOrderByCreatedAtDesc(Activity.Status.PENDING), "PENDING");
+        assertIndexed(() -> activityRepository.findByStudentIdAndStatusOrderByCreatedAtDesc(1_000_007L, Activity.Status.APPROVED),
+                1_000_007L, "APPROVED");
+    }
+
+    @Test
+    void chatQueriesUseIndexes() {
+        assertIndexed(() -> chatThreadRepository.findByStudentIdOrderByLastMessageAtDesc(1_000_007L), 1_000_007L);
+        assertIndexed(() -> chatThreadRepository.findByFacultyIdOrderByLastMessageAtDesc(2_000_007L), 2_000_007L);
+        assertIndexed(() -> chatMessageRepository.findByThreadIdOrderByCreatedAtAsc(3_000_007L), 3_000_007L);
+    }
+
+    @Test
+    void certificateQueriesUseIndexes() {
+        assertIndexed(() -> certificateRepository.findByUserId(1_000_007L), 1_000_007L);
+    }
+
+    /**
+     * Run the repository call (in a transaction, which streaming queries need), take the SQL it
+     * issued and EXPLAIN it with the same parameters. Every table access must go through an index.
+     */
+    private List<Map<String, Object>> assertIndexed(Runnable query, Object... parameters) {
+        CapturingInspector.STATEMENTS.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.run());
+        assertFalse(CapturingInspector.STATEMENTS.isEmpty(), "query issued no SQL");
+        String sql = CapturingInspector.STATEMENTS.get(CapturingInspector.STATEMENTS.size() - 1);
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+        for (Map<String, Object> row : plan) {
+            String description = sql + "\n  plan: " + plan;
+            assertFalse("ALL".equals(row.get("type")), "full table scan in " + description);
+            assertNotNull(row.get("key"), "no index used in " + description);
+        }
+        return plan;
+    }
+
+    // Like assertIndexed, and the plan must read through the named index
+    private void assertUsesIndex(String index, Runnable query, Object... parameters) {
+        List<Map<String, Object>> plan = assertIndexed(query, parameters);
+        assertTrue(plan.stream().anyMatch(row -> index.equals(row.get("key"))),
+                "expected " + index + " in plan: " + plan);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.edusync.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CollectionVersionServiceTest {
+
+    @Test
+    void resourceListingOfAllBranchesIsTheWholeCollection() {
+        assertEquals(CollectionVersionService.allResources(), CollectionVersionService.resourceListing(null, "Maths"));
+        assertEquals(CollectionVersionService.allResources(), CollectionVersionService.resourceListing("All", null));
+    }
+
+    @Test
+    void resourceListingMatchesTheKeysWritesBump() {
+        assertEquals(CollectionVersionService.resourcesByBranch("Civil"),
+                CollectionVersionService.resourceListing("Civil", " "));
+        assertEquals(CollectionVersionService.resourcesByBranchAndSubject("Civil", "Surveying"),
+                CollectionVersionService.resourceListing("Civil", "Surveying"));
+    }
+
+    @Test
+    void resourceListingIgnoresCaseAndSpacing() {
+        assertEquals(CollectionVersionService.resourceListing("Computer Science", "Data Structures"),
+                CollectionVersionService.resourceListing(" computer  SCIENCE", "data structures "));
+    }
+}
@@ -0,0 +1,88 @@
+package com.edusync.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HotFileCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private HotFileCache cache;
+
+    @BeforeEach
+    void createCache() {
+        cache = new HotFileCache();
+        // Room for one of the 60-byte files below
+        ReflectionTestUtils.setField(cache, "maxBytes", 100L);
+        ReflectionTestUtils.setField(cache, "maxFileBytes", 80L);
+        ReflectionTestUtils.setField(cache, "minHits", 3);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.registerMetrics();
+    }
+
+    @Test
+    void fileIsAdmittedOnlyOnceItIsHot() throws IOException {
+        Resource syllabus = file("syllabus.txt", 60);
+
+        assertSame(syllabus, lookup(syllabus));
+        assertSame(syllabus, lookup(syllabus));
+        Resource cached = lookup(syllabus);
+        assertNotSame(syllabus, cached);
+        assertArrayEquals(Files.readAllBytes(syllabus.getFile().toPath()), cached.getInputStream().readAllBytes());
+    }
+
+    @Test
+    void lessPopularFileDoesNotDisplaceAMorePopularOne() throws IOException {
+        Resource syllabus = file("syllabus.txt", 60);
+        Resource handout = file("handout.txt", 60);
+        for (int i = 0; i < 5; i++) {
+            lookup(syllabus);
+        }
+
+        // Hot enough to be admitted, but not as popular as the cached syllabus
+        for (int i = 0; i < 5; i++) {
+            assertSame(handout, lookup(handout));
+        }
+        assertNotSame(syllabus, lookup(syllabus));
+
+        // Once requested more often than the syllabus, the handout replaces it
+        lookup(handout);
+        assertNotSame(handout, lookup(handout));
+    }
+
+    @Test
+    void largeFilesAreNeverCached() throws IOException {
+        Resource video = file("lecture.bin", 90);
+        for (int i = 0; i < 5; i++) {
+            assertSame(video, lookup(video));
+        }
+    }
+
+    private Resource lookup(Resource file) throws IOException {
+        return cache.lookup(file, file.contentLength(), 0L);
+    }
+
+    private Resource file(String name, int size) throws IOException {
+        Path path = dir.resolve(name);
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (name.hashCode() + i);
+        }
+        Files.write(path, content);
+        return new FileSystemResource(path);
+    }
+}
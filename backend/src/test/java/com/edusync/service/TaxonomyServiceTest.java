@@ -0,0 +1,25 @@
+package com.edusync.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxonomyServiceTest {
+
+    @Test
+    void canonicalKeyIgnoresCaseAndSpacing() {
+        assertEquals("computer science", TaxonomyService.canonicalKey("Computer Science"));
+        assertEquals("computer science", TaxonomyService.canonicalKey("  computer \t SCIENCE\n"));
+        assertEquals("", TaxonomyService.canonicalKey("   "));
+    }
+
+    @Test
+    void blankOrAllSelectsEveryBranch() {
+        assertTrue(TaxonomyService.isAll(null));
+        assertTrue(TaxonomyService.isAll(" "));
+        assertTrue(TaxonomyService.isAll(" all "));
+        assertFalse(TaxonomyService.isAll("Mechanical"));
+    }
+}
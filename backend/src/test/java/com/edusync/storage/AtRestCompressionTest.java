@@ -0,0 +1,57 @@
+package com.edusync.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AtRestCompressionTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void logicalKeyStripsTheSuffixOfCompressibleTypes() {
+        assertEquals("resources/notes.txt", AtRestCompression.logicalKey("resources/notes.txt.gz"));
+        assertEquals("resources/DATA.CSV", AtRestCompression.logicalKey("resources/DATA.CSV.gz"));
+    }
+
+    @Test
+    void logicalKeyKeepsOtherKeys() {
+        // An uploaded archive, not one we compressed
+        assertEquals("resources/backup.tar.gz", AtRestCompression.logicalKey("resources/backup.tar.gz"));
+        assertEquals("resources/slides.pdf", AtRestCompression.logicalKey("resources/slides.pdf"));
+        assertEquals("resources/notes.txt", AtRestCompression.logicalKey("resources/notes.txt"));
+    }
+
+    @Test
+    void uncompressedSizeIsReadFromTheGzipTrailer() throws IOException {
+        byte[] text = "timetable row\n".repeat(5000).getBytes();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(text);
+        }
+        LocalObjectStorage storage = new LocalObjectStorage(root);
+        storage.write("resources/notes.txt.gz", new ByteArrayInputStream(compressed.toByteArray()),
+                compressed.size(), "application/gzip");
+
+        StoredObject stored = storage.stat("resources/notes.txt.gz").orElseThrow();
+        assertEquals(text.length, AtRestCompression.uncompressedSize(storage, stored));
+    }
+
+    @Test
+    void uncompressedSizeRejectsTruncatedObjects() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(root);
+        storage.write("resources/notes.txt.gz", new ByteArrayInputStream(new byte[] { 1, 2 }), 2, "application/gzip");
+
+        StoredObject stored = storage.stat("resources/notes.txt.gz").orElseThrow();
+        assertThrows(IOException.class, () -> AtRestCompression.uncompressedSize(storage, stored));
+    }
+}
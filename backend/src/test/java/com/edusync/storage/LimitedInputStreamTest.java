@@ -0,0 +1,55 @@
+package com.edusync.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LimitedInputStreamTest {
+
+    private final byte[] content = "0123456789".getBytes();
+
+    @Test
+    void readAllStopsAtTheLimit() throws IOException {
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(content), 4);
+        assertArrayEquals("0123".getBytes(), in.readAllBytes());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void singleByteReadsStopAtTheLimit() throws IOException {
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(content), 2);
+        assertEquals('0', in.read());
+        assertEquals('1', in.read());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void bulkReadIsShortenedToWhatIsLeft() throws IOException {
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(content), 3);
+        byte[] buffer = new byte[8];
+        assertEquals(3, in.read(buffer, 0, buffer.length));
+        assertEquals(-1, in.read(buffer, 0, buffer.length));
+    }
+
+    @Test
+    void skipAndAvailableCountAgainstTheLimit() throws IOException {
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(content), 5);
+        assertEquals(5, in.available());
+        assertEquals(3, in.skip(3));
+        assertEquals(2, in.available());
+        assertEquals(2, in.skip(10));
+        assertEquals(0, in.available());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void limitBeyondTheStreamEndsWithTheStream() throws IOException {
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(content), 100);
+        assertArrayEquals(content, in.readAllBytes());
+    }
+}
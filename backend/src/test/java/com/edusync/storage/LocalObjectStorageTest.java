@@ -0,0 +1,81 @@
+package com.edusync.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalObjectStorageTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void shardedPathUsesTheFirstHexDigitsOfTheNameHash() {
+        Path dir = Path.of("/uploads/resources");
+        // md5("notes.pdf") starts with 25b7
+        assertEquals(Path.of("/uploads/resources/25/b7/notes.pdf"), LocalObjectStorage.shardedPath(dir, "notes.pdf"));
+    }
+
+    @Test
+    void writeStoresUnderTheShardAndReadFindsIt() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(root);
+        storage.write("resources/notes.pdf", content("pdf"), 3, "application/pdf");
+
+        assertTrue(Files.isRegularFile(root.resolve("resources/25/b7/notes.pdf")));
+        assertEquals("pdf", new String(storage.read("resources/notes.pdf").readAllBytes()));
+    }
+
+    @Test
+    void listPagesThroughFlatFilesAndEveryShardOnce() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(root);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            storage.write("resources/file-" + i + ".pdf", content("x"), 1, "application/pdf");
+            expected.add("resources/file-" + i + ".pdf");
+        }
+        // Not yet migrated to the sharded layout
+        for (int i = 0; i < 3; i++) {
+            Files.writeString(root.resolve("resources/legacy-" + i + ".pdf"), "x");
+            expected.add("resources/legacy-" + i + ".pdf");
+        }
+        // An upload in progress is not an object
+        Files.writeString(LocalObjectStorage.shardedPath(root.resolve("resources"), "file-0.pdf")
+                .resolveSibling(".upload-1.tmp"), "x");
+
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        while (true) {
+            List<StoredObject> page = storage.list("resources/", cursor, 7);
+            page.forEach(object -> listed.add(object.key()));
+            if (page.size() < 7) {
+                break;
+            }
+            cursor = page.get(page.size() - 1).key();
+        }
+
+        assertEquals(expected.size(), listed.size(), "each object exactly once: " + listed);
+        assertEquals(expected, new HashSet<>(listed));
+        assertEquals(List.of("resources/legacy-0.pdf", "resources/legacy-1.pdf", "resources/legacy-2.pdf"),
+                listed.subList(0, 3));
+    }
+
+    @Test
+    void listOfMissingPrefixIsEmpty() throws IOException {
+        assertTrue(new LocalObjectStorage(root).list("certificates/", null, 10).isEmpty());
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes());
+    }
+}
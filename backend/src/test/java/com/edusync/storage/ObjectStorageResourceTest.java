@@ -0,0 +1,69 @@
+package com.edusync.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectStorageResourceTest {
+
+    @TempDir
+    Path root;
+
+    private final byte[] content = new byte[100];
+
+    private boolean aborted;
+
+    private ObjectStorageResource resource;
+
+    @BeforeEach
+    void store() throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        LocalObjectStorage storage = new LocalObjectStorage(root) {
+            @Override
+            public void abort(InputStream stream) throws IOException {
+                aborted = true;
+                super.abort(stream);
+            }
+        };
+        storage.write("resources/video.mp4", new ByteArrayInputStream(content), content.length, "video/mp4");
+        resource = new ObjectStorageResource(storage, storage.stat("resources/video.mp4").orElseThrow());
+    }
+
+    @Test
+    void rangeIsReadFromItsStartAndTheRestIsAborted() throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            in.skipNBytes(10);
+            assertArrayEquals(Arrays.copyOfRange(content, 10, 15), in.readNBytes(5));
+        }
+        assertTrue(aborted);
+    }
+
+    @Test
+    void streamReadToTheEndIsClosedNormally() throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertFalse(aborted);
+    }
+
+    @Test
+    void rangeEndingAtTheLastByteIsClosedNormally() throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            in.skipNBytes(90);
+            assertArrayEquals(Arrays.copyOfRange(content, 90, 100), in.readNBytes(10));
+        }
+        assertFalse(aborted);
+    }
+}
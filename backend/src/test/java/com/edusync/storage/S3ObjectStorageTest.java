@@ -0,0 +1,149 @@
+package com.edusync.storage;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs S3ObjectStorage against a MinIO container. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class S3ObjectStorageTest {
+
+    private static final String BUCKET = "edusync-test";
+    private static final String PREFIX = "edusync/";
+    private static final int THRESHOLD = 1024;
+    // The smallest part size S3 accepts; S3ObjectStorage raises smaller settings to it
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Container
+    static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    private S3Client s3;
+    private S3ObjectStorage storage;
+
+    @BeforeAll
+    void connect() {
+        s3 = S3Client.builder()
+                .endpointOverride(URI.create(MINIO.getS3URL()))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+                .build();
+        s3.createBucket(request -> request.bucket(BUCKET));
+        storage = new S3ObjectStorage(s3, BUCKET, PREFIX, THRESHOLD, PART_SIZE);
+    }
+
+    @AfterAll
+    void close() {
+        s3.close();
+    }
+
+    @Test
+    void smallKnownSizeIsASinglePut() throws IOException {
+        byte[] content = bytes(THRESHOLD);
+        storage.write("resources/notes.txt", new ByteArrayInputStream(content), content.length, "text/plain");
+
+        assertFalse(isMultipart("resources/notes.txt"));
+        assertArrayEquals(content, storage.read("resources/notes.txt").readAllBytes());
+    }
+
+    @Test
+    void unknownSizeIsUploadedInParts() throws IOException {
+        byte[] content = bytes(PART_SIZE + 1000);
+        storage.write("resources/video.mp4", new ByteArrayInputStream(content), -1, "video/mp4");
+
+        assertEquals(2, partCount("resources/video.mp4"));
+        assertArrayEquals(content, storage.read("resources/video.mp4").readAllBytes());
+    }
+
+    @Test
+    void bodyOfWholePartsHasNoEmptyTrailingPart() throws IOException {
+        byte[] content = bytes(2 * PART_SIZE);
+        storage.write("resources/exact.bin", new ByteArrayInputStream(content), content.length, "application/octet-stream");
+
+        assertEquals(2, partCount("resources/exact.bin"));
+        assertEquals(content.length, storage.stat("resources/exact.bin").orElseThrow().size());
+    }
+
+    @Test
+    void emptyInputIsStoredAsAnEmptyObject() throws IOException {
+        storage.write("resources/empty-known.txt", InputStream.nullInputStream(), 0, "text/plain");
+        storage.write("resources/empty-unknown.txt", InputStream.nullInputStream(), -1, "text/plain");
+
+        assertEquals(0, storage.stat("resources/empty-known.txt").orElseThrow().size());
+        assertEquals(0, storage.stat("resources/empty-unknown.txt").orElseThrow().size());
+    }
+
+    @Test
+    void failedUploadAbortsTheMultipartUpload() throws IOException {
+        // One full part, then the client connection drops
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(bytes(PART_SIZE)), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+
+        assertThrows(IOException.class,
+                () -> storage.write("resources/broken.bin", failing, -1, "application/octet-stream"));
+        assertTrue(s3.listMultipartUploads(ListMultipartUploadsRequest.builder().bucket(BUCKET).build())
+                .uploads().isEmpty());
+        assertTrue(storage.stat("resources/broken.bin").isEmpty());
+    }
+
+    @Test
+    void rangedReadReturnsThoseBytes() throws IOException {
+        byte[] content = bytes(PART_SIZE + 4096);
+        storage.write("resources/lecture.mp4", new ByteArrayInputStream(content), content.length, "video/mp4");
+
+        // Spans the boundary between the two parts
+        int offset = PART_SIZE - 100;
+        try (InputStream in = storage.read("resources/lecture.mp4", offset, 300)) {
+            assertArrayEquals(Arrays.copyOfRange(content, offset, offset + 300), in.readAllBytes());
+        }
+    }
+
+    // Multipart ETags end in -<number of parts>
+    private int partCount(String key) {
+        String etag = s3.headObject(HeadObjectRequest.builder().bucket(BUCKET).key(PREFIX + key).build()).eTag();
+        int dash = etag.lastIndexOf('-');
+        return dash < 0 ? 1 : Integer.parseInt(etag.substring(dash + 1).replace("\"", ""));
+    }
+
+    private boolean isMultipart(String key) {
+        return s3.headObject(HeadObjectRequest.builder().bucket(BUCKET).key(PREFIX + key).build()).eTag().contains("-");
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,33 @@
+package com.jsp.edusync.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+/**
+ * HTTP sessions are kept outside the app node so several instances can run behind a load
+ * balancer without sticky sessions.
+ *
+ * With {@code edusync.session.store=jdbc} (the default) Spring Boot's Spring Session JDBC support
+ * stores them in the SPRING_SESSION tables. {@code edusync.session.store=memory} swaps in a local
+ * map, which is what tests use.
+ */
+@Configuration
+public class SessionStoreConfig {
+
+    @Configuration
+    @EnableSpringHttpSession
+    @ConditionalOnProperty(name = "edusync.session.store", havingValue = "memory")
+    static class InMemorySessionStore {
+
+        // Defining a SessionRepository makes Boot's JDBC session configuration back off
+        @Bean
+        MapSessionRepository sessionRepository() {
+            return new MapSessionRepository(new ConcurrentHashMap<>());
+        }
+    }
+}
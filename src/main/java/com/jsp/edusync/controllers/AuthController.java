@@ -1,12 +1,15 @@
 package com.jsp.edusync.controllers;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,14 +18,21 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.jsp.edusync.models.Resource;
+import com.jsp.edusync.models.ResourceSummary;
+import com.jsp.edusync.models.SessionUser;
 import com.jsp.edusync.models.User;
 import com.jsp.edusync.repositories.UserRepository;
 import com.jsp.edusync.services.AuthService;
+import com.jsp.edusync.services.FileStoreService;
+import com.jsp.edusync.services.ResourceListingService;
 import com.jsp.edusync.services.ResourceService;
+import com.jsp.edusync.services.WelcomePageCache;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
@@ -32,12 +42,20 @@ public class AuthController {
     private final AuthService authService;
     private final ResourceService resourceService;
     private final UserRepository userRepository;
+    private final FileStoreService fileStoreService;
+    private final ResourceListingService resourceListingService;
+    private final WelcomePageCache welcomePageCache;
 
     @Autowired
-    public AuthController(AuthService authService, ResourceService resourceService, UserRepository userRepository) {
+    public AuthController(AuthService authService, ResourceService resourceService, UserRepository userRepository,
+                          FileStoreService fileStoreService, ResourceListingService resourceListingService,
+                          WelcomePageCache welcomePageCache) {
         this.authService = authService;
         this.resourceService = resourceService;
         this.userRepository = userRepository;
+        this.fileStoreService = fileStoreService;
+        this.resourceListingService = resourceListingService;
+        this.welcomePageCache = welcomePageCache;
     }
 
     // Root redirect
@@ -47,11 +65,11 @@ public class AuthController {
     }
 
     // Welcome page
-    @GetMapping("/welcome")
-    public String showWelcomePage(Model model) {
-        List<Resource> resources = resourceService.getAllResources();
-        model.addAttribute("resources", resources);
-        return "welcome";
+    @GetMapping(value = "/welcome", produces = MediaType.TEXT_HTML_VALUE)
+    @ResponseBody
+    public String showWelcomePage(HttpServletRequest request, HttpServletResponse response) {
+        // Same static page for everyone; don't create a session just for viewing it
+        return welcomePageCache.getPage(request, response);
     }
 
     // Login
@@ -76,7 +94,7 @@ public class AuthController {
         }
 
         System.out.println("Auth successful: " + user.getRole());
-        session.setAttribute("loggedInUser", user);
+        session.setAttribute("loggedInUser", SessionUser.from(user));
         return user.getRole().equalsIgnoreCase("faculty") ? "redirect:/home" : "redirect:/student-home";
     }
 
@@ -93,7 +111,7 @@ public class AuthController {
             model.addAttribute("error", "Email already registered");
             return "signup";
         }
-        session.setAttribute("loggedInUser", user);
+        session.setAttribute("loggedInUser", SessionUser.from(user));
         return "redirect:/home";
     }
 
@@ -106,36 +124,41 @@ public class AuthController {
 
     // Home Pages
     @GetMapping("/home")
-    public String showHomePage(Model model, HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+    public String showHomePage(@RequestParam(defaultValue = "0") int page, Model model, HttpSession session) {
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/login";
         }
 
-        List<Resource> resources = resourceService.getAllResources();
+        addResourcePage(model, page);
         model.addAttribute("user", user);
-        model.addAttribute("resources", resources);
         return "home";
     }
 
     @GetMapping("/student-home")
-    public String showStudentHome(Model model, HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+    public String showStudentHome(@RequestParam(defaultValue = "0") int page, Model model, HttpSession session) {
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null || !user.getRole().equalsIgnoreCase("student")) {
             return "redirect:/login";
         }
 
-        List<Resource> resources = resourceService.getAllResources();
+        addResourcePage(model, page);
         model.addAttribute("user", user);
-        model.addAttribute("resources", resources);
         model.addAttribute("studentName", user.getName());
         return "student-home";
     }
 
+    private void addResourcePage(Model model, int page) {
+        Page<ResourceSummary> resources = resourceListingService.getPage(page);
+        model.addAttribute("resources", resources.getContent());
+        model.addAttribute("currentPage", resources.getNumber());
+        model.addAttribute("totalPages", resources.getTotalPages());
+    }
+
     // Search
     @GetMapping("/search")
     public String handleSearch(@RequestParam(required = false) String query, Model model, HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null) {
             return "redirect:/login";
         }
@@ -145,7 +168,7 @@ public class AuthController {
             return "redirect:/home";
         }
         
-        List<Resource> searchResults = resourceService.searchResources(query.trim());
+        List<ResourceSummary> searchResults = resourceService.searchResources(query.trim());
         model.addAttribute("user", user);
         model.addAttribute("resources", searchResults);
         model.addAttribute("searchQuery", query);
@@ -156,7 +179,7 @@ public class AuthController {
     // Resource Management
     @GetMapping("/upload")
     public String showUploadPage(Model model, HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null || !user.getRole().equalsIgnoreCase("faculty")) {
             return "redirect:/login";
         }
@@ -169,20 +192,22 @@ public class AuthController {
                              @RequestParam String description,
                              @RequestParam("file") MultipartFile file,
                              HttpSession session) throws IOException {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null || !user.getRole().equalsIgnoreCase("faculty")) {
             return "redirect:/login";
         }
 
-        resourceService.saveResource(
-            title,
-            description,
-            file.getOriginalFilename(),
-            file.getContentType(),
-            file.getSize(),
-            file.getBytes(),
-            user
-        );
+        try (InputStream content = file.getInputStream()) {
+            resourceService.saveResource(
+                title,
+                description,
+                file.getOriginalFilename(),
+                file.getContentType(),
+                file.getSize(),
+                content,
+                userRepository.getReferenceById(user.getId())
+            );
+        }
         return "redirect:/home";
     }
 
@@ -193,7 +218,17 @@ public class AuthController {
             Resource r = resource.get();
             response.setContentType(r.getFileType());
             response.setHeader("Content-Disposition", "attachment; filename=\"" + r.getFileName() + "\"");
-            response.getOutputStream().write(r.getData());
+            if (r.getStoragePath() != null) {
+                // Stream from the file store instead of holding the whole file in memory
+                response.setContentLengthLong(fileStoreService.size(r.getStoragePath()));
+                fileStoreService.copyTo(r.getStoragePath(), response.getOutputStream());
+            } else if (r.getData() != null) {
+                // Not migrated off the blob column yet
+                response.getOutputStream().write(r.getData());
+            } else {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
             response.flushBuffer();
         } else {
             response.sendError(HttpServletResponse.SC_NOT_FOUND);
@@ -202,7 +237,7 @@ public class AuthController {
 
     @GetMapping("/edit/{id}")
     public String showEditPage(@PathVariable Long id, Model model, HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null || !user.getRole().equalsIgnoreCase("faculty")) {
             return "redirect:/login";
         }
@@ -222,7 +257,7 @@ public class AuthController {
                              @RequestParam String title,
                              @RequestParam String description,
                              HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null || !user.getRole().equalsIgnoreCase("faculty")) {
             return "redirect:/login";
         }
@@ -233,7 +268,7 @@ public class AuthController {
 
     @GetMapping("/delete/{id}")
     public String handleDelete(@PathVariable Long id, HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser user = (SessionUser) session.getAttribute("loggedInUser");
         if (user == null || !user.getRole().equalsIgnoreCase("faculty")) {
             return "redirect:/login";
         }
@@ -245,8 +280,13 @@ public class AuthController {
     // Profile
     @GetMapping("/profile")
     public String showProfile(Model model, HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser principal = (SessionUser) session.getAttribute("loggedInUser");
+        if (principal == null) {
+            return "redirect:/login";
+        }
+        User user = userRepository.findById(principal.getId()).orElse(null);
         if (user == null) {
+            session.invalidate();
             return "redirect:/login";
         }
         
@@ -254,7 +294,7 @@ public class AuthController {
         
         // If faculty, get their uploaded resources
         if ("faculty".equals(user.getRole())) {
-            List<Resource> resources = resourceService.getResourcesByUploader(user);
+            List<ResourceSummary> resources = resourceService.getResourcesByUploader(user);
             model.addAttribute("resources", resources);
         }
         
@@ -266,7 +306,8 @@ public class AuthController {
                               @RequestParam String email,
                               @RequestParam(required = false) MultipartFile profilePicture,
                               HttpSession session) throws IOException {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser principal = (SessionUser) session.getAttribute("loggedInUser");
+        User user = principal == null ? null : userRepository.findById(principal.getId()).orElse(null);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                .body(Map.of("message", "User not logged in"));
@@ -285,8 +326,8 @@ public class AuthController {
         // Save to database
         userRepository.save(user);
         
-        // Update session
-        session.setAttribute("loggedInUser", user);
+        // Update session; only the compact principal is stored, never the entity
+        session.setAttribute("loggedInUser", SessionUser.from(user));
         
         return ResponseEntity.ok(Map.of("message", "Profile updated successfully"));
     }
@@ -306,7 +347,8 @@ public class AuthController {
 
     @PostMapping("/delete-profile-picture")
     public ResponseEntity<?> deleteProfilePicture(HttpSession session) {
-        User user = (User) session.getAttribute("loggedInUser");
+        SessionUser principal = (SessionUser) session.getAttribute("loggedInUser");
+        User user = principal == null ? null : userRepository.findById(principal.getId()).orElse(null);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                                .body(Map.of("message", "User not logged in"));
@@ -319,8 +361,8 @@ public class AuthController {
         // Save to database
         userRepository.save(user);
         
-        // Update session
-        session.setAttribute("loggedInUser", user);
+        // Update session; only the compact principal is stored, never the entity
+        session.setAttribute("loggedInUser", SessionUser.from(user));
         
         return ResponseEntity.ok(Map.of("message", "Profile picture removed successfully"));
     }
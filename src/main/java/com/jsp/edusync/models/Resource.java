@@ -2,6 +2,9 @@ package com.jsp.edusync.models;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.LazyGroup;
+
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -27,6 +30,10 @@ public class Resource {
     private String fileType;
     private Long fileSize;
     private LocalDateTime uploadTime;
+
+    // Contents are only read by downloads/migration; with bytecode enhancement these load on first access
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("fileData")
     private byte[] fileData;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -34,9 +41,15 @@ public class Resource {
     private User uploader;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("data")
     @Column(columnDefinition = "LONGBLOB")
     private byte[] data;
 
+    // Location of the contents in the file store; null only for rows not yet migrated off the blob
+    @Column(name = "storage_path")
+    private String storagePath;
+
     public Resource() { }
 
     public Resource(String title,
@@ -85,4 +98,7 @@ public class Resource {
 
     public byte[] getData() { return data; }
     public void setData(byte[] data) { this.data = data; }
+
+    public String getStoragePath() { return storagePath; }
+    public void setStoragePath(String storagePath) { this.storagePath = storagePath; }
 }
@@ -0,0 +1,46 @@
+package com.jsp.edusync.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata-only view of a {@link Resource} for listing pages. Built straight from a JPQL
+ * constructor expression, so the file contents are never read.
+ */
+public class ResourceSummary {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String fileName;
+    private final String fileType;
+    private final Long fileSize;
+    private final LocalDateTime uploadTime;
+    private final String uploaderName;
+
+    public ResourceSummary(Long id,
+                           String title,
+                           String description,
+                           String fileName,
+                           String fileType,
+                           Long fileSize,
+                           LocalDateTime uploadTime,
+                           String uploaderName) {
+        this.id           = id;
+        this.title        = title;
+        this.description  = description;
+        this.fileName     = fileName;
+        this.fileType     = fileType;
+        this.fileSize     = fileSize;
+        this.uploadTime   = uploadTime;
+        this.uploaderName = uploaderName;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getFileName() { return fileName; }
+    public String getFileType() { return fileType; }
+    public Long getFileSize() { return fileSize; }
+    public LocalDateTime getUploadTime() { return uploadTime; }
+    public String getUploaderName() { return uploaderName; }
+}
@@ -0,0 +1,33 @@
+package com.jsp.edusync.models;
+
+import java.io.Serializable;
+
+/**
+ * What the session remembers about the logged-in user. Kept small and serializable so sessions
+ * can live in the shared session store; anything else is loaded from the database when needed.
+ */
+public class SessionUser implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final String name;
+    private final String role;
+    private final boolean profilePictureSet;
+
+    public SessionUser(Long id, String name, String role, boolean profilePictureSet) {
+        this.id = id;
+        this.name = name;
+        this.role = role;
+        this.profilePictureSet = profilePictureSet;
+    }
+
+    public static SessionUser from(User user) {
+        return new SessionUser(user.getId(), user.getName(), user.getRole(), user.getProfilePicture() != null);
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getRole() { return role; }
+    public boolean isProfilePictureSet() { return profilePictureSet; }
+}
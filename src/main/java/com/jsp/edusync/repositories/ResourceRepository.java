@@ -2,14 +2,38 @@ package com.jsp.edusync.repositories;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.jsp.edusync.models.Resource;
+import com.jsp.edusync.models.ResourceSummary;
 import com.jsp.edusync.models.User;
 
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
     List<Resource> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String titleTerm, String descriptionTerm);
     List<Resource> findByUploader(User uploader);
+
+    // Metadata-only listings: never touch the data/fileData columns
+    String SUMMARY_SELECT = "SELECT new com.jsp.edusync.models.ResourceSummary("
+            + "r.id, r.title, r.description, r.fileName, r.fileType, r.fileSize, r.uploadTime, u.name) "
+            + "FROM Resource r LEFT JOIN r.uploader u ";
+
+    @Query(SUMMARY_SELECT + "ORDER BY r.uploadTime DESC")
+    List<ResourceSummary> findAllSummaries();
+
+    @Query(value = SUMMARY_SELECT + "ORDER BY r.uploadTime DESC, r.id DESC",
+           countQuery = "SELECT COUNT(r) FROM Resource r")
+    Page<ResourceSummary> findSummaryPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE u = :uploader ORDER BY r.uploadTime DESC")
+    List<ResourceSummary> findSummariesByUploader(@Param("uploader") User uploader);
+
+    @Query(SUMMARY_SELECT + "WHERE LOWER(r.title) LIKE LOWER(CONCAT('%', :query, '%')) "
+            + "OR LOWER(r.description) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY r.uploadTime DESC")
+    List<ResourceSummary> searchSummaries(@Param("query") String query);
 }
@@ -0,0 +1,103 @@
+package com.jsp.edusync.services;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves file contents still stored in the resources LONGBLOB columns out to the {@link FileStoreService}.
+ *
+ * Runs in the background after startup when {@code edusync.blob-migration.enabled=true}. Rows are
+ * processed in chunks of ids; each blob is streamed to disk through JDBC (never through Hibernate)
+ * and the row is then switched to its storage path and the blob cleared. Rows written concurrently
+ * by uploads already have a storage path and are skipped, so the app stays online meanwhile.
+ */
+@Service
+public class BlobMigrationService implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStoreService fileStoreService;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public BlobMigrationService(JdbcTemplate jdbcTemplate,
+                                FileStoreService fileStoreService,
+                                @Value("${edusync.blob-migration.enabled:false}") boolean enabled,
+                                @Value("${edusync.blob-migration.chunk-size:50}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileStoreService = fileStoreService;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::migrateAll, "blob-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public int migrateAll() {
+        int migrated = 0;
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM resources WHERE storage_path IS NULL AND id > ? "
+                    + "AND (data IS NOT NULL OR file_data IS NOT NULL) ORDER BY id LIMIT ?",
+                    Long.class, lastId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Long id : ids) {
+                try {
+                    if (migrateOne(id)) {
+                        migrated++;
+                    }
+                } catch (Exception e) {
+                    System.err.println("Blob migration failed for resource " + id + ": " + e.getMessage());
+                }
+                lastId = id;
+            }
+            System.out.println("Blob migration: " + migrated + " resources moved to file storage so far");
+        }
+        System.out.println("Blob migration finished: " + migrated + " resources moved to file storage");
+        return migrated;
+    }
+
+    private boolean migrateOne(Long id) {
+        String storagePath = jdbcTemplate.query(
+                "SELECT file_name, COALESCE(data, file_data) AS content FROM resources WHERE id = ? AND storage_path IS NULL",
+                rs -> {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    try (InputStream content = rs.getBinaryStream("content")) {
+                        return content == null ? null : fileStoreService.store(content, rs.getString("file_name"));
+                    } catch (java.io.IOException e) {
+                        throw new IllegalStateException("Could not write blob of resource " + id, e);
+                    }
+                },
+                id);
+        if (storagePath == null) {
+            return false;
+        }
+
+        int updated = jdbcTemplate.update(
+                "UPDATE resources SET storage_path = ?, data = NULL, file_data = NULL WHERE id = ? AND storage_path IS NULL",
+                storagePath, id);
+        if (updated == 0) {
+            // Someone else migrated or replaced the row meanwhile; drop our copy
+            fileStoreService.delete(storagePath);
+            return false;
+        }
+        return true;
+    }
+}
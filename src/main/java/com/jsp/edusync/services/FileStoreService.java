@@ -0,0 +1,70 @@
+package com.jsp.edusync.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps uploaded resource contents on disk instead of in the resources table.
+ * Rows only store the relative storage path returned by {@link #store}.
+ */
+@Service
+public class FileStoreService {
+
+    private final Path root;
+
+    public FileStoreService(@Value("${edusync.file-store.dir:uploads/legacy-resources}") String dir) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    public String store(InputStream content, String originalFileName) throws IOException {
+        String extension = "";
+        if (originalFileName != null && originalFileName.contains(".")) {
+            extension = originalFileName.substring(originalFileName.lastIndexOf('.')).replaceAll("[^a-zA-Z0-9.]", "");
+        }
+        String storagePath = System.currentTimeMillis() + "_" + UUID.randomUUID() + extension;
+
+        // Copy to a temp file first so a failed upload never leaves a partial file under the final name
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, resolve(storagePath), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return storagePath;
+    }
+
+    public long size(String storagePath) throws IOException {
+        return Files.size(resolve(storagePath));
+    }
+
+    public void copyTo(String storagePath, OutputStream out) throws IOException {
+        Files.copy(resolve(storagePath), out);
+    }
+
+    public void delete(String storagePath) {
+        try {
+            Files.deleteIfExists(resolve(storagePath));
+        } catch (IOException e) {
+            System.err.println("Could not delete stored file " + storagePath + ": " + e.getMessage());
+        }
+    }
+
+    private Path resolve(String storagePath) {
+        Path path = root.resolve(storagePath).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid storage path " + storagePath);
+        }
+        return path;
+    }
+}
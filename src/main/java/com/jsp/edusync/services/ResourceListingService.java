@@ -0,0 +1,30 @@
+package com.jsp.edusync.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.jsp.edusync.models.ResourceSummary;
+import com.jsp.edusync.repositories.ResourceRepository;
+
+/**
+ * Paged, metadata-only resource listings for the home, student-home and welcome pages.
+ * Rendering cost depends on the page size, not on how many resources (or bytes) exist.
+ */
+@Service
+public class ResourceListingService {
+
+    private final ResourceRepository resourceRepository;
+    private final int pageSize;
+
+    public ResourceListingService(ResourceRepository resourceRepository,
+                                  @Value("${edusync.listing.page-size:24}") int pageSize) {
+        this.resourceRepository = resourceRepository;
+        this.pageSize = pageSize;
+    }
+
+    public Page<ResourceSummary> getPage(int page) {
+        return resourceRepository.findSummaryPage(PageRequest.of(Math.max(0, page), pageSize));
+    }
+}
@@ -1,5 +1,7 @@
 package com.jsp.edusync.services;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.jsp.edusync.models.Resource;
+import com.jsp.edusync.models.ResourceSummary;
 import com.jsp.edusync.models.User;
 import com.jsp.edusync.repositories.ResourceRepository;
 
@@ -15,22 +18,24 @@ import com.jsp.edusync.repositories.ResourceRepository;
 public class ResourceService {
 
     private final ResourceRepository resourceRepository;
+    private final FileStoreService fileStoreService;
 
     @Autowired
-    public ResourceService(ResourceRepository resourceRepository) {
+    public ResourceService(ResourceRepository resourceRepository, FileStoreService fileStoreService) {
         this.resourceRepository = resourceRepository;
+        this.fileStoreService = fileStoreService;
     }
 
-    public List<Resource> getAvailableResources() {
-        return resourceRepository.findAll();
+    public List<ResourceSummary> getAvailableResources() {
+        return resourceRepository.findAllSummaries();
     }
     
-    public List<Resource> getResourcesByUploader(User uploader) {
-        return resourceRepository.findByUploader(uploader);
+    public List<ResourceSummary> getResourcesByUploader(User uploader) {
+        return resourceRepository.findSummariesByUploader(uploader);
     }
 
-    public List<Resource> searchResources(String query) {
-        return resourceRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(query, query);
+    public List<ResourceSummary> searchResources(String query) {
+        return resourceRepository.searchSummaries(query);
     }
 
     public Resource saveResource(String title,
@@ -38,8 +43,9 @@ public class ResourceService {
                                  String fileName,
                                  String fileType,
                                  Long fileSize,
-                                 byte[] data,
-                                 User uploader) {
+                                 InputStream content,
+                                 User uploader) throws IOException {
+        String storagePath = fileStoreService.store(content, fileName);
         Resource r = new Resource(
                 title,
                 description,
@@ -47,14 +53,21 @@ public class ResourceService {
                 fileType,
                 fileSize,
                 LocalDateTime.now(),
-                data,
+                null,
                 uploader
         );
-        return resourceRepository.save(r);
+        r.setStoragePath(storagePath);
+        try {
+            return resourceRepository.save(r);
+        } catch (RuntimeException e) {
+            fileStoreService.delete(storagePath);
+            throw e;
+        }
     }
 
-    public List<Resource> getAllResources() {
-        return resourceRepository.findAll();
+    // Metadata only; file contents stay in the file store (or the legacy blob) until downloaded
+    public List<ResourceSummary> getAllResources() {
+        return resourceRepository.findAllSummaries();
     }
 
     public Optional<Resource> getResourceById(Long id) {
@@ -62,7 +75,12 @@ public class ResourceService {
     }
 
     public void deleteResource(Long id) {
-        resourceRepository.deleteById(id);
+        resourceRepository.findById(id).ifPresent(r -> {
+            resourceRepository.delete(r);
+            if (r.getStoragePath() != null) {
+                fileStoreService.delete(r.getStoragePath());
+            }
+        });
     }
 
     public Resource updateResource(Long id, String title, String description) {
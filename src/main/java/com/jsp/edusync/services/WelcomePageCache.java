@@ -0,0 +1,74 @@
+package com.jsp.edusync.services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caches the rendered HTML of the welcome page.
+ *
+ * The page is static (it lists no resources), so it is rendered at most once per TTL.
+ * Only one request re-renders an expired page; concurrent requests keep getting the previous
+ * copy meanwhile.
+ */
+@Service
+public class WelcomePageCache {
+
+    private final SpringTemplateEngine templateEngine;
+    private final JakartaServletWebApplication webApplication;
+    private final long ttlMillis;
+    private final ReentrantLock renderLock = new ReentrantLock();
+
+    private volatile CachedPage cached;
+
+    public WelcomePageCache(SpringTemplateEngine templateEngine,
+                            ServletContext servletContext,
+                            @Value("${edusync.welcome-cache.ttl:30s}") Duration ttl) {
+        this.templateEngine = templateEngine;
+        this.webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public String getPage(HttpServletRequest request, HttpServletResponse response) {
+        CachedPage page = cached;
+        long now = System.currentTimeMillis();
+        if (page != null && page.expiresAt > now) {
+            return page.html;
+        }
+        if (page != null && !renderLock.tryLock()) {
+            // Another request is already refreshing; serving the slightly stale copy is fine
+            return page.html;
+        }
+        if (page == null) {
+            renderLock.lock();
+        }
+        try {
+            page = cached;
+            if (page == null || page.expiresAt <= System.currentTimeMillis()) {
+                page = new CachedPage(render(request, response), System.currentTimeMillis() + ttlMillis);
+                cached = page;
+            }
+            return page.html;
+        } finally {
+            renderLock.unlock();
+        }
+    }
+
+    private String render(HttpServletRequest request, HttpServletResponse response) {
+        WebContext context = new WebContext(webApplication.buildExchange(request, response), request.getLocale(),
+                Map.of());
+        return templateEngine.process("welcome", context);
+    }
+
+    private record CachedPage(String html, long expiresAt) { }
+}
@@ -3,7 +3,7 @@ package com.jsp.edusync;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "edusync.session.store=memory")
 class EdusyncApplicationTests {
 
 	@Test